@@ -0,0 +1,35 @@
+package garrich.demo.temporal;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.service.AuditJournal;
+import garrich.demo.temporal.service.AuditWriter;
+import garrich.demo.temporal.service.ChecksumCalculator;
+import garrich.demo.temporal.service.ChecksumIndex;
+import garrich.demo.temporal.service.FileDeduplicator;
+import garrich.demo.temporal.service.FileProcessingService;
+import garrich.demo.temporal.service.ShardedAuditStore;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Minimal context for benchmarking {@link FileProcessingService}: JPA, SQLite and the service beans,
+ * without the Temporal worker or the Camel routes. Lives in the root package so entity and repository
+ * scanning match the application.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@Import({
+        TemporalProperties.class,
+        FileProcessingMetrics.class,
+        AuditWriter.class,
+        AuditJournal.class,
+        ShardedAuditStore.class,
+        ChecksumIndex.class,
+        ChecksumCalculator.class,
+        FileDeduplicator.class,
+        FileProcessingService.class
+})
+public class FileProcessingBenchmarkApplication {
+}
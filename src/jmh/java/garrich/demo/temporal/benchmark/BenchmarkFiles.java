@@ -0,0 +1,52 @@
+package garrich.demo.temporal.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+final class BenchmarkFiles {
+
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * Activities log every file at INFO; keep that out of the measurements.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static Path writeRandomFile(Path file, long size) throws IOException {
+        byte[] chunk = new byte[(int) Math.min(size, 1024 * 1024)];
+        try (var out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                ThreadLocalRandom.current().nextBytes(chunk);
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    static void cleanDirectory(Path dir) throws IOException {
+        deleteRecursively(dir);
+        Files.createDirectories(dir);
+    }
+}
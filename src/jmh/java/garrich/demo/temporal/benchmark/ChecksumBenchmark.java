@@ -0,0 +1,80 @@
+package garrich.demo.temporal.benchmark;
+
+import garrich.demo.temporal.activity.ChecksumActivityImpl;
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.file.Checksum;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.service.ChecksumCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChecksumActivityImpl#calculateSha256} across file sizes; the largest size takes the memory-mapped path.
+ * {@code calculateTreeChecksum} hashes the same files with the parallel tree hash forced on for every size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChecksumBenchmark {
+
+    @Param({"1024", "65536", "1048576", "16777216", "134217728"})
+    private long fileSize;
+
+    private Path directory;
+    private String filePath;
+    private ChecksumActivityImpl checksumActivity;
+    private ChecksumCalculator treeCalculator;
+    private ChecksumActivityImpl treeChecksumActivity;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkFiles.quietLogging();
+        directory = Files.createTempDirectory("checksum-bench");
+        filePath = BenchmarkFiles.writeRandomFile(directory.resolve("data.bin"), fileSize).toString();
+        var metrics = new FileProcessingMetrics(new SimpleMeterRegistry());
+        // No workflow client needed: activities only complete asynchronously with hashing.async-completion
+        var properties = new TemporalProperties();
+        checksumActivity = new ChecksumActivityImpl(metrics, new ChecksumCalculator(properties), null, properties);
+
+        var treeProperties = new TemporalProperties();
+        treeProperties.getHashing().setTreeEnabled(true);
+        treeProperties.getHashing().setTreeThreshold(0);
+        treeCalculator = new ChecksumCalculator(treeProperties);
+        treeChecksumActivity = new ChecksumActivityImpl(metrics, treeCalculator, null, treeProperties);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        treeCalculator.shutdown();
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String calculateSha256() {
+        return checksumActivity.calculateSha256(filePath);
+    }
+
+    @Benchmark
+    public Checksum calculateTreeChecksum() {
+        return treeChecksumActivity.calculateChecksum(filePath);
+    }
+}
@@ -0,0 +1,84 @@
+package garrich.demo.temporal.benchmark;
+
+import garrich.demo.temporal.activity.FileActivityImpl;
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.service.ChecksumCalculator;
+import garrich.demo.temporal.service.FileDeduplicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FileActivityImpl#moveFileToTarget} and the single-read move-and-checksum variant.
+ * A fresh source file is written before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FileMoveBenchmark {
+
+    @Param({"1024", "1048576"})
+    private long fileSize;
+
+    private Path sourceDir;
+    private Path targetDir;
+    private String sourceFile;
+    private FileActivityImpl fileActivity;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkFiles.quietLogging();
+        sourceDir = Files.createTempDirectory("move-bench-source");
+        targetDir = Files.createTempDirectory("move-bench-target");
+        var properties = new TemporalProperties();
+        fileActivity = new FileActivityImpl(new FileDeduplicator(properties, null), null,
+                new ChecksumCalculator(properties), new FileProcessingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Setup(Level.Invocation)
+    public void createSourceFile() throws IOException {
+        sourceFile = BenchmarkFiles.writeRandomFile(sourceDir.resolve("data.bin"), fileSize).toString();
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanTarget() throws IOException {
+        BenchmarkFiles.cleanDirectory(targetDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(sourceDir);
+        BenchmarkFiles.deleteRecursively(targetDir);
+    }
+
+    @Benchmark
+    public String moveFileToTarget() {
+        return fileActivity.moveFileToTarget(sourceFile, targetDir.toString());
+    }
+
+    @Benchmark
+    public MovedFile moveFileWithChecksum() {
+        return fileActivity.moveFileWithChecksum(sourceFile, targetDir.toString());
+    }
+}
@@ -0,0 +1,94 @@
+package garrich.demo.temporal.benchmark;
+
+import garrich.demo.temporal.FileProcessingBenchmarkApplication;
+import garrich.demo.temporal.service.FileProcessingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FileProcessingService#processFile} against a temporary SQLite database,
+ * with each audit backend: synchronous JPA, write-behind JDBC batches, the memory-mapped journal and
+ * sharded SQLite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProcessFileBenchmark {
+
+    @Param({"jpa", "write-behind", "journal", "sharded"})
+    private String audit;
+
+    private Path workDir;
+    private Path sourceDir;
+    private Path targetDir;
+    private String sourceFile;
+    private ConfigurableApplicationContext context;
+    private FileProcessingService fileProcessingService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("process-bench");
+        sourceDir = Files.createDirectories(workDir.resolve("source"));
+        targetDir = Files.createDirectories(workDir.resolve("target"));
+
+        context = new SpringApplicationBuilder(FileProcessingBenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:sqlite:" + workDir.resolve("bench.db") + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000",
+                        "spring.datasource.driver-class-name=org.sqlite.JDBC",
+                        "spring.jpa.database-platform=org.hibernate.community.dialect.SQLiteDialect",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "temporal.audit.backend=" + (audit.equals("write-behind") ? "jpa" : audit),
+                        "temporal.audit.write-behind=" + audit.equals("write-behind"),
+                        "temporal.audit.journal.directory=" + workDir.resolve("journal"),
+                        "temporal.audit.journal.export-enabled=false",
+                        "temporal.audit.shards.directory=" + workDir.resolve("shards"))
+                .run();
+        fileProcessingService = context.getBean(FileProcessingService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void createSourceFile() throws IOException {
+        sourceFile = BenchmarkFiles.writeRandomFile(sourceDir.resolve("data.bin"), 4096).toString();
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanTarget() throws IOException {
+        BenchmarkFiles.cleanDirectory(targetDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        BenchmarkFiles.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public String processFile() {
+        return fileProcessingService.processFile(sourceFile, targetDir.toString());
+    }
+}
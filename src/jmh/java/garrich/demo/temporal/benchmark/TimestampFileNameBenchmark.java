@@ -0,0 +1,32 @@
+package garrich.demo.temporal.benchmark;
+
+import garrich.demo.temporal.file.TimestampedFileNames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TimestampFileNameBenchmark {
+
+    @Param({"file1.txt", "archive.tar.gz", "README"})
+    private String fileName;
+
+    @Benchmark
+    public String withTimestamp() {
+        return TimestampedFileNames.withTimestamp(fileName);
+    }
+}
@@ -1,11 +1,25 @@
 package garrich.demo.temporal.activity;
 
+import garrich.demo.temporal.file.Checksum;
 import io.temporal.activity.ActivityInterface;
 import io.temporal.activity.ActivityMethod;
 
+import java.util.List;
+import java.util.Map;
+
 @ActivityInterface
 public interface ChecksumActivity {
 
     @ActivityMethod
     String calculateSha256(String filePath);
+
+    @ActivityMethod
+    Checksum calculateChecksum(String filePath);
+
+    /**
+     * Computes several digests (JCA names such as SHA-256, SHA-512, MD5, plus CRC32C) from one read of the
+     * file and returns the hex values keyed by algorithm.
+     */
+    @ActivityMethod
+    Map<String, String> calculateDigests(String filePath, List<String> algorithms);
 }
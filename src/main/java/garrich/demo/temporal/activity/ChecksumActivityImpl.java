@@ -1,39 +1,161 @@
 package garrich.demo.temporal.activity;
 
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.file.Checksum;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.service.ChecksumCalculator;
+import io.temporal.activity.Activity;
+import io.temporal.client.ActivityCompletionClient;
+import io.temporal.client.ActivityCompletionException;
+import io.temporal.client.WorkflowClient;
+import io.temporal.failure.ApplicationFailure;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * With {@code temporal.hashing.async-completion} the checksum methods hand the file to a bounded hashing
+ * executor and return without completing the activity, so the worker's activity slot is released right away.
+ * The executor reports the result and heartbeats through the {@link ActivityCompletionClient}. Heartbeats start
+ * at submission, so a task waiting for a thread doesn't hit the heartbeat timeout, and a task whose activity
+ * was abandoned in the meantime is skipped. When the executor is full, the attempt fails right away with a
+ * retryable {@value #EXECUTOR_FULL} failure that asks for a retry after {@code async-retry-delay}, rather than
+ * holding the activity slot until a thread frees up.
+ */
 @Slf4j
 @Component
 public class ChecksumActivityImpl implements ChecksumActivity {
 
+    public static final String EXECUTOR_FULL = "ChecksumExecutorFull";
+
+    private final FileProcessingMetrics metrics;
+    private final ChecksumCalculator checksumCalculator;
+    // Resolved lazily: the worker configuration that registers this activity also creates the client
+    private final ObjectProvider<WorkflowClient> workflowClient;
+    private final ThreadPoolExecutor executor;
+    // Running plus queued tasks; the queue itself is unbounded so a submitted task is never rejected
+    private final Semaphore capacity;
+    private final Duration retryDelay;
+    private volatile ActivityCompletionClient completionClient;
+
+    public ChecksumActivityImpl(FileProcessingMetrics metrics, ChecksumCalculator checksumCalculator,
+                                ObjectProvider<WorkflowClient> workflowClient, TemporalProperties temporalProperties) {
+        this.metrics = metrics;
+        this.checksumCalculator = checksumCalculator;
+        this.workflowClient = workflowClient;
+
+        var hashing = temporalProperties.getHashing();
+        int parallelism = hashing.getAsyncParallelism() > 0
+                ? hashing.getAsyncParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.executor = hashing.isAsyncCompletion()
+                ? new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(), Thread.ofPlatform().name("checksum-", 0).daemon().factory())
+                : null;
+        this.capacity = new Semaphore(parallelism + hashing.getAsyncQueueSize());
+        this.retryDelay = hashing.getAsyncRetryDelay();
+    }
+
     @Override
     public String calculateSha256(String filePath) {
-        var path = Paths.get(filePath);
+        return hash("checksum",
+                progress -> checksumCalculator.sha256Hex(Paths.get(filePath), progress),
+                hash -> log.info("Calculated SHA-256 for {}: {}", filePath, hash));
+    }
 
-        if (!Files.exists(path)) {
-            throw new RuntimeException("File does not exist: " + filePath);
+    @Override
+    public Checksum calculateChecksum(String filePath) {
+        return hash("checksum",
+                progress -> checksumCalculator.checksum(Paths.get(filePath), progress),
+                checksum -> log.info("Calculated {} for {}: {}", checksum.algorithm(), filePath, checksum.value()));
+    }
+
+    @Override
+    public Map<String, String> calculateDigests(String filePath, List<String> algorithms) {
+        return hash("digests",
+                progress -> checksumCalculator.digestsHex(Paths.get(filePath), algorithms, progress),
+                digests -> log.info("Calculated {} for {}: {}", algorithms, filePath, digests));
+    }
+
+    private <T> T hash(String stage, Function<Optional<ChecksumCalculator.Progress>, T> task, Consumer<T> onResult) {
+        var timer = metrics.activityStage(stage);
+        if (executor == null || Activity.getExecutionContext().getInfo().isLocal()) {
+            var progress = checksumCalculator.activityProgress();
+            try {
+                T result = timer.record(() -> task.apply(progress));
+                onResult.accept(result);
+                return result;
+            } finally {
+                progress.ifPresent(ChecksumCalculator.Progress::close);
+            }
         }
 
-        try {
-            byte[] fileBytes = Files.readAllBytes(path);
-            var digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(fileBytes);
-            String hash = HexFormat.of().formatHex(hashBytes);
-
-            log.info("Calculated SHA-256 for {}: {}", filePath, hash);
-            return hash;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read file: " + e.getMessage(), e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
+        if (!capacity.tryAcquire()) {
+            throw ApplicationFailure.newBuilder()
+                    .setType(EXECUTOR_FULL)
+                    .setMessage("Checksum executor is full, retrying in " + retryDelay)
+                    .setNextRetryDelay(retryDelay)
+                    .build();
+        }
+
+        var context = Activity.getExecutionContext();
+        byte[] taskToken = context.getTaskToken();
+        String activityId = context.getInfo().getActivityId();
+        var client = completionClient();
+        var progress = checksumCalculator.progress(context, checkpoint -> client.heartbeat(taskToken, checkpoint));
+        executor.execute(() -> {
+            try {
+                if (progress.isAbandoned()) {
+                    log.info("Checksum activity {} was abandoned while queued, skipping it", activityId);
+                    return;
+                }
+                T result = timer.record(() -> task.apply(Optional.of(progress)));
+                onResult.accept(result);
+                client.complete(taskToken, result);
+            } catch (ActivityCompletionException e) {
+                log.info("Checksum activity {} no longer accepts a result: {}", activityId, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Checksum failed: {}", e.getMessage(), e);
+                try {
+                    client.completeExceptionally(taskToken, e);
+                } catch (ActivityCompletionException ce) {
+                    log.info("Checksum activity {} no longer accepts a failure: {}", activityId, ce.getMessage());
+                }
+            } finally {
+                progress.close();
+                capacity.release();
+            }
+        });
+        context.doNotCompleteOnReturn();
+        return null;
+    }
+
+    private ActivityCompletionClient completionClient() {
+        var client = completionClient;
+        if (client == null) {
+            client = workflowClient.getObject().newActivityCompletionClient();
+            completionClient = client;
+        }
+        return client;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
         }
     }
 }
@@ -1,5 +1,6 @@
 package garrich.demo.temporal.activity;
 
+import garrich.demo.temporal.file.MovedFile;
 import io.temporal.activity.ActivityInterface;
 import io.temporal.activity.ActivityMethod;
 
@@ -8,4 +9,7 @@ public interface FileActivity {
 
     @ActivityMethod
     String moveFileToTarget(String filePath, String targetPath);
+
+    @ActivityMethod
+    MovedFile moveFileWithChecksum(String filePath, String targetPath);
 }
@@ -1,5 +1,15 @@
 package garrich.demo.temporal.activity;
 
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import garrich.demo.temporal.file.FileHashing;
+import garrich.demo.temporal.file.FileMetrics;
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.file.TimestampedFileNames;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.service.AuditSink;
+import garrich.demo.temporal.service.ChecksumCalculator;
+import garrich.demo.temporal.service.FileDeduplicator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -7,26 +17,35 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class FileActivityImpl implements FileActivity {
 
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssnnnnnnnn");
+    private final FileDeduplicator fileDeduplicator;
+    private final AuditSink auditSink;
+    private final ChecksumCalculator checksumCalculator;
+    private final FileProcessingMetrics metrics;
 
     @Override
     public String moveFileToTarget(String filePath, String targetPath) {
+        return metrics.activityStage("move").record(() -> move(filePath, targetPath));
+    }
+
+    @Override
+    public MovedFile moveFileWithChecksum(String filePath, String targetPath) {
+        return metrics.activityStage("move_checksum").record(() -> moveWithChecksum(filePath, targetPath));
+    }
+
+    private String move(String filePath, String targetPath) {
         var source = Paths.get(filePath);
 
         if (!Files.exists(source)) {
             throw new RuntimeException("Source file does not exist: " + filePath);
         }
 
-        var fileName = source.getFileName().toString();
-        var timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        var newFileName = addTimestampToFileName(fileName, timestamp);
+        var newFileName = TimestampedFileNames.withTimestamp(source.getFileName().toString());
 
         var targetDir = Paths.get(targetPath);
         var destination = targetDir.resolve(newFileName);
@@ -34,6 +53,7 @@ public class FileActivityImpl implements FileActivity {
         try {
             Files.createDirectories(targetDir);
             Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+            FileMetrics.bytesMoved(Files.size(destination));
             log.info("Moved file from {} to {}", source, destination);
             return destination.toString();
         } catch (IOException e) {
@@ -41,13 +61,21 @@ public class FileActivityImpl implements FileActivity {
         }
     }
 
-    private String addTimestampToFileName(String fileName, String timestamp) {
-        int dotIndex = fileName.lastIndexOf('.');
-        if (dotIndex > 0) {
-            String name = fileName.substring(0, dotIndex);
-            String extension = fileName.substring(dotIndex);
-            return name + "_" + timestamp + extension;
+    private MovedFile moveWithChecksum(String filePath, String targetPath) {
+        var source = Paths.get(filePath);
+        var destination = Paths.get(targetPath).resolve(TimestampedFileNames.withTimestamp(source.getFileName().toString()));
+
+        if (fileDeduplicator.isEnabled()) {
+            var stored = fileDeduplicator.store(source, destination);
+            log.info("Stored file {} as {} [{}]", source, stored.path(), stored.decision());
+            // The same record route 4 writes, so the dedup index still finds this file after a restart
+            auditSink.record(new FileProcessingRecord(filePath, stored.path(), stored.sha256(), FileHashing.ALGORITHM,
+                    "CHECKSUM_CALCULATED"));
+            return new MovedFile(stored.path(), stored.sha256());
         }
-        return fileName + "_" + timestamp;
+
+        var movedFile = checksumCalculator.moveAndChecksum(source, destination);
+        log.info("Moved file from {} to {} [{}: {}]", source, destination, movedFile.algorithm(), movedFile.checksum());
+        return movedFile;
     }
 }
@@ -0,0 +1,103 @@
+package garrich.demo.temporal.config;
+
+import garrich.demo.temporal.file.FileHashing;
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.file.TimestampedFileNames;
+import garrich.demo.temporal.service.ChecksumCalculator;
+import io.temporal.common.converter.DataConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * With {@code temporal.startup.warmup}, runs the move, checksum and payload conversion paths on temporary
+ * files right after the workers start, so they are JIT-compiled before the Camel routes (started once the
+ * context is refreshed) pick up the first real file. Warm-up bytes show up in the {@code file.bytes.*} counters.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup implements SmartLifecycle {
+
+    private final TemporalProperties temporalProperties;
+    private final ChecksumCalculator checksumCalculator;
+    private final DataConverter dataConverter;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        var startup = temporalProperties.getStartup();
+        if (!startup.isWarmup()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("warmup");
+            var data = new byte[startup.getWarmupFileSize()];
+            ThreadLocalRandom.current().nextBytes(data);
+            for (int i = 0; i < startup.getWarmupIterations(); i++) {
+                warmUp(directory, data, i);
+            }
+            log.info("Warmed up file processing in {} ms ({} iterations)",
+                    (System.nanoTime() - started) / 1_000_000, startup.getWarmupIterations());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm-up failed, continuing without it: {}", e.getMessage(), e);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private void warmUp(Path directory, byte[] data, int iteration) throws IOException {
+        var source = Files.write(directory.resolve("warmup-" + iteration + ".bin"), data);
+        var destination = directory.resolve("target").resolve(TimestampedFileNames.withTimestamp(source.getFileName().toString()));
+
+        MovedFile movedFile = checksumCalculator.moveAndChecksum(source, destination);
+        var payload = dataConverter.toPayload(movedFile).orElseThrow();
+        dataConverter.fromPayload(payload, MovedFile.class, MovedFile.class);
+
+        if (checksumCalculator.hasExtraDigests()) {
+            FileHashing.digestsHex(destination, temporalProperties.getHashing().getExtraDigests());
+        }
+        Files.delete(destination);
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete warm-up directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return TemporalWorkerLifecycle.PHASE + 1;
+    }
+}
@@ -1,38 +1,80 @@
 package garrich.demo.temporal.config;
 
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
 import garrich.demo.temporal.activity.ChecksumActivity;
 import garrich.demo.temporal.activity.FileActivity;
+import garrich.demo.temporal.converter.DeflatePayloadCodec;
+import garrich.demo.temporal.converter.MovedFilePayloadConverter;
+import garrich.demo.temporal.workflow.BatchWorkflowImpl;
 import garrich.demo.temporal.workflow.StarterWorkflowImpl;
 import garrich.demo.temporal.workflow.StarterWorkflowLocalImpl;
 import garrich.demo.temporal.workflow.StarterWorkflowWfTasksImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.temporal.activity.ActivityOptions;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import io.temporal.common.converter.PayloadConverter;
+import io.temporal.common.reporter.MicrometerClientStatsReporter;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
 import io.temporal.worker.WorkerFactoryOptions;
 import io.temporal.worker.WorkerOptions;
+import io.temporal.worker.WorkflowImplementationOptions;
+import io.temporal.worker.tuning.CompositeTuner;
 import io.temporal.worker.tuning.PollerBehaviorAutoscaling;
+import io.temporal.worker.tuning.ResourceBasedController;
+import io.temporal.worker.tuning.ResourceBasedControllerOptions;
+import io.temporal.worker.tuning.ResourceBasedSlotOptions;
+import io.temporal.worker.tuning.ResourceBasedSlotSupplier;
+import io.temporal.worker.tuning.WorkerTuner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class TemporalConfig {
 
+    private static final String MOVE_FILE_TO_TARGET = "MoveFileToTarget";
+    private static final String CALCULATE_SHA256 = "CalculateSha256";
+    private static final String CALCULATE_CHECKSUM = "CalculateChecksum";
+    private static final String CALCULATE_DIGESTS = "CalculateDigests";
+
     private final TemporalProperties temporalProperties;
     private final FileActivity fileActivity;
     private final ChecksumActivity checksumActivity;
 
+    // Shared by the tuners of every worker; created on first use since resource tuning is optional
+    private ResourceBasedController resourceController;
+
     @Bean
-    public WorkflowServiceStubs workflowServiceStubs() {
+    public WorkflowServiceStubs workflowServiceStubs(MeterRegistry meterRegistry) {
+        // Admission control samples the reported latencies every adjust interval, so report at least that often
+        var admission = temporalProperties.getAdmission();
+        long reportMillis = admission.isEnabled()
+                ? Math.min(10_000, admission.getAdjustInterval().toMillis())
+                : 10_000;
+        Scope metricsScope = new RootScopeBuilder()
+                .reporter(new MicrometerClientStatsReporter(meterRegistry))
+                .reportEvery(com.uber.m3.util.Duration.ofMillis(reportMillis));
+
         var builder = WorkflowServiceStubsOptions.newBuilder()
+                .setMetricsScope(metricsScope)
                 .setTarget(temporalProperties.getServerAddress())
                 .setRpcTimeout(temporalProperties.getServer().getRpcTimeout())
                 .setConnectionBackoffResetFrequency(temporalProperties.getServer().getConnectionBackoffResetFrequency())
@@ -46,32 +88,64 @@ public class TemporalConfig {
     }
 
     @Bean
-    public WorkflowClient workflowClient(WorkflowServiceStubs workflowServiceStubs) {
+    public DataConverter dataConverter() {
+        // The binary MovedFile converter has to come before the JSON converter, which accepts any value
+        List<PayloadConverter> converters = new ArrayList<>();
+        for (PayloadConverter converter : DefaultDataConverter.STANDARD_PAYLOAD_CONVERTERS) {
+            if (converter instanceof JacksonJsonPayloadConverter) {
+                converters.add(new MovedFilePayloadConverter());
+            }
+            converters.add(converter);
+        }
+        var dataConverter = new DefaultDataConverter(converters.toArray(PayloadConverter[]::new));
+
+        var payload = temporalProperties.getPayload();
+        if (!payload.isCompression()) {
+            return dataConverter;
+        }
+        return new CodecDataConverter(dataConverter, List.of(new DeflatePayloadCodec(payload.getCompressionThreshold())));
+    }
+
+    @Bean
+    public WorkflowClient workflowClient(WorkflowServiceStubs workflowServiceStubs, DataConverter dataConverter) {
         return WorkflowClient.newInstance(
                 workflowServiceStubs,
                 WorkflowClientOptions.newBuilder()
                         .setNamespace(temporalProperties.getNamespace())
+                        .setDataConverter(dataConverter)
                         .build()
         );
     }
 
     @Bean
     public WorkerFactory workerFactory(WorkflowClient workflowClient) {
+        var workerProps = temporalProperties.getWorker();
+
+        // Every cached workflow holds a workflow thread, so the thread count caps the effective cache size
         var factoryOptions = WorkerFactoryOptions.newBuilder()
-                .setMaxWorkflowThreadCount(temporalProperties.getWorker().getMaxConcurrentWorkflowTaskExecutionSize())
+                .setWorkflowCacheSize(workerProps.getWorkflowCacheSize())
+                .setMaxWorkflowThreadCount(workerProps.getMaxWorkflowThreadCount())
+                .setUsingVirtualWorkflowThreads(workerProps.isVirtualWorkflowThreads())
                 .build();
 
         return WorkerFactory.newInstance(workflowClient, factoryOptions);
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "temporal.worker", name = "enabled", matchIfMissing = true)
     public Worker worker(WorkerFactory workerFactory) {
         var workerProps = temporalProperties.getWorker();
 
-        var workerOptions = WorkerOptions.newBuilder()
-                .setMaxConcurrentWorkflowTaskExecutionSize(workerProps.getMaxConcurrentWorkflowTaskExecutionSize())
-                .setMaxConcurrentActivityExecutionSize(workerProps.getMaxConcurrentActivityExecutionSize())
-                .setMaxConcurrentLocalActivityExecutionSize(workerProps.getMaxConcurrentLocalActivityExecutionSize())
+        var builder = WorkerOptions.newBuilder();
+        if (workerProps.getResourceTuning().isEnabled()) {
+            builder.setWorkerTuner(resourceBasedTuner());
+        } else {
+            builder.setMaxConcurrentWorkflowTaskExecutionSize(workerProps.getMaxConcurrentWorkflowTaskExecutionSize())
+                    .setMaxConcurrentActivityExecutionSize(workerProps.getMaxConcurrentActivityExecutionSize())
+                    .setMaxConcurrentLocalActivityExecutionSize(workerProps.getMaxConcurrentLocalActivityExecutionSize());
+        }
+
+        var workerOptions = builder
                 .setUsingVirtualThreads(true)
                 .setActivityTaskPollersBehavior(
                         new PollerBehaviorAutoscaling(workerProps.getMinPollers(), workerProps.getMaxPollers(), workerProps.getInitialPollers())
@@ -80,18 +154,115 @@ public class TemporalConfig {
                         new PollerBehaviorAutoscaling(workerProps.getMinPollers(), workerProps.getMaxPollers(), workerProps.getInitialPollers())
                 )
                 .setDefaultDeadlockDetectionTimeout(workerProps.getDeadlockDetectionTimeout())
+                .setStickyQueueScheduleToStartTimeout(workerProps.getStickyQueueScheduleToStartTimeout())
+                .build();
+
+        // Remote activities are routed to their own task queues; the workflow stubs only set timeouts and retries
+        var implementationOptions = WorkflowImplementationOptions.newBuilder()
+                .setActivityOptions(Map.of(
+                        MOVE_FILE_TO_TARGET, ActivityOptions.newBuilder()
+                                .setTaskQueue(temporalProperties.getIoWorker().getTaskQueue())
+                                .build(),
+                        CALCULATE_SHA256, checksumActivityOptions(),
+                        CALCULATE_CHECKSUM, checksumActivityOptions(),
+                        CALCULATE_DIGESTS, ActivityOptions.newBuilder()
+                                .setTaskQueue(temporalProperties.getCpuWorker().getTaskQueue())
+                                .build()
+                ))
                 .build();
 
         var worker = workerFactory.newWorker(temporalProperties.getTaskQueue(), workerOptions);
-        worker.registerWorkflowImplementationTypes(StarterWorkflowImpl.class, StarterWorkflowLocalImpl.class, StarterWorkflowWfTasksImpl.class);
+        worker.registerWorkflowImplementationTypes(
+                implementationOptions,
+                StarterWorkflowImpl.class,
+                StarterWorkflowLocalImpl.class,
+                StarterWorkflowWfTasksImpl.class,
+                BatchWorkflowImpl.class
+        );
+        // Local activities always run on the workflow worker; the checksum one only for pre-versioning executions
         worker.registerActivitiesImplementations(fileActivity, checksumActivity);
         return worker;
     }
 
-    @EventListener(ApplicationReadyEvent.class)
-    public void startWorkerFactory(ApplicationReadyEvent event) {
-        var workerFactory = event.getApplicationContext().getBean(WorkerFactory.class);
-        workerFactory.start();
-        log.info("Temporal worker started on task queue: {}", temporalProperties.getTaskQueue());
+    @Bean
+    @ConditionalOnProperty(prefix = "temporal.io-worker", name = "enabled", matchIfMissing = true)
+    public Worker ioWorker(WorkerFactory workerFactory) {
+        var worker = workerFactory.newWorker(temporalProperties.getIoWorker().getTaskQueue(),
+                activityWorkerOptions(temporalProperties.getIoWorker()));
+        worker.registerActivitiesImplementations(fileActivity);
+        return worker;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "temporal.cpu-worker", name = "enabled", matchIfMissing = true)
+    public Worker cpuWorker(WorkerFactory workerFactory) {
+        var worker = workerFactory.newWorker(temporalProperties.getCpuWorker().getTaskQueue(),
+                activityWorkerOptions(temporalProperties.getCpuWorker()));
+        worker.registerActivitiesImplementations(checksumActivity);
+        return worker;
+    }
+
+    /**
+     * Checksums of large files heartbeat their progress, so a stuck worker is detected within the heartbeat
+     * timeout and the overall timeout can be long enough for multi-gigabyte files.
+     */
+    private ActivityOptions checksumActivityOptions() {
+        var hashing = temporalProperties.getHashing();
+        return ActivityOptions.newBuilder()
+                .setTaskQueue(temporalProperties.getCpuWorker().getTaskQueue())
+                .setStartToCloseTimeout(hashing.getChecksumStartToCloseTimeout())
+                .setHeartbeatTimeout(hashing.getChecksumHeartbeatTimeout())
+                .build();
+    }
+
+    private WorkerOptions activityWorkerOptions(TemporalProperties.ActivityWorker activityWorker) {
+        var builder = WorkerOptions.newBuilder();
+        if (temporalProperties.getWorker().getResourceTuning().isEnabled()) {
+            builder.setWorkerTuner(resourceBasedTuner());
+        } else {
+            builder.setMaxConcurrentActivityExecutionSize(activityWorker.getMaxConcurrentActivityExecutionSize());
+        }
+
+        return builder
+                .setUsingVirtualThreads(true)
+                .setActivityTaskPollersBehavior(
+                        new PollerBehaviorAutoscaling(activityWorker.getMinPollers(), activityWorker.getMaxPollers(), activityWorker.getInitialPollers())
+                )
+                .build();
+    }
+
+    /**
+     * Slot suppliers that only hand out another slot while process CPU and heap usage stay below their
+     * targets. Fixed maxConcurrent* limits can't be combined with a tuner, so they are ignored in this mode.
+     * Every worker gets its own suppliers, but they all consult one controller, so the workers share a single
+     * view of the JVM's CPU and heap instead of each sampling and reacting to it on its own.
+     */
+    private WorkerTuner resourceBasedTuner() {
+        var tuning = temporalProperties.getWorker().getResourceTuning();
+        var controller = resourceController();
+        var activitySlotOptions = ResourceBasedSlotOptions.newBuilder()
+                .setMinimumSlots(tuning.getMinActivitySlots())
+                .setMaximumSlots(tuning.getMaxActivitySlots())
+                .setRampThrottle(tuning.getRampThrottle())
+                .build();
+        return new CompositeTuner(
+                ResourceBasedSlotSupplier.createForWorkflow(controller, ResourceBasedSlotOptions.newBuilder()
+                        .setMinimumSlots(tuning.getMinWorkflowSlots())
+                        .setMaximumSlots(tuning.getMaxWorkflowSlots())
+                        .setRampThrottle(Duration.ZERO)
+                        .build()),
+                ResourceBasedSlotSupplier.createForActivity(controller, activitySlotOptions),
+                ResourceBasedSlotSupplier.createForLocalActivity(controller, activitySlotOptions),
+                ResourceBasedSlotSupplier.createForNexus(controller, activitySlotOptions));
+    }
+
+    private synchronized ResourceBasedController resourceController() {
+        if (resourceController == null) {
+            var tuning = temporalProperties.getWorker().getResourceTuning();
+            resourceController = ResourceBasedController.newSystemInfoController(ResourceBasedControllerOptions
+                    .newBuilder(tuning.getTargetMemoryUsage(), tuning.getTargetCpuUsage())
+                    .build());
+        }
+        return resourceController;
     }
 }
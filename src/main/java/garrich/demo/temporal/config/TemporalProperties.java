@@ -1,10 +1,16 @@
 package garrich.demo.temporal.config;
 
+import garrich.demo.temporal.file.MultiDigest;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Data
 @Component
@@ -18,10 +24,25 @@ public class TemporalProperties {
     private String sourcePath2 = "source-files2";
     private String sourcePath3 = "source-files3";
     private String sourcePath4 = "source-files4";
+    private String sourcePath5 = "source-files5";
     private String targetPath = "target-files";
 
     private Server server = new Server();
     private Worker worker = new Worker();
+    private ActivityWorker ioWorker = new ActivityWorker("file-io-task-queue");
+    private ActivityWorker cpuWorker = new ActivityWorker("checksum-task-queue");
+    private Audit audit = new Audit();
+    private Dedup dedup = new Dedup();
+    private Intake intake = new Intake();
+    private Admission admission = new Admission();
+    private Payload payload = new Payload();
+    private Hashing hashing = new Hashing();
+    private Startup startup = new Startup();
+    private Map<String, Route> routes = new HashMap<>();
+
+    public Route getRoute(String routeId) {
+        return routes.computeIfAbsent(routeId, id -> new Route());
+    }
 
     @Data
     public static class Server {
@@ -33,6 +54,7 @@ public class TemporalProperties {
 
     @Data
     public static class Worker {
+        private boolean enabled = true;
         private int maxConcurrentWorkflowTaskExecutionSize = 200;
         private int maxConcurrentActivityExecutionSize = 200;
         private int maxConcurrentLocalActivityExecutionSize = 200;
@@ -40,5 +62,160 @@ public class TemporalProperties {
         private int maxPollers = 100;
         private int initialPollers = 5;
         private long deadlockDetectionTimeout = Duration.ofSeconds(60).toMillis();
+        private int workflowCacheSize = 600;
+        private int maxWorkflowThreadCount = 600;
+        private boolean virtualWorkflowThreads = false;
+        private Duration stickyQueueScheduleToStartTimeout = Duration.ofSeconds(5);
+        private ResourceTuning resourceTuning = new ResourceTuning();
+    }
+
+    @Data
+    public static class ResourceTuning {
+        private boolean enabled = false;
+        private double targetCpuUsage = 0.8;
+        private double targetMemoryUsage = 0.8;
+        private int minWorkflowSlots = 5;
+        private int maxWorkflowSlots = 500;
+        private int minActivitySlots = 1;
+        private int maxActivitySlots = 1000;
+        private Duration rampThrottle = Duration.ofMillis(50);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ActivityWorker {
+        private boolean enabled = true;
+        private String taskQueue;
+        private int maxConcurrentActivityExecutionSize = 200;
+        private int minPollers = 1;
+        private int maxPollers = 50;
+        private int initialPollers = 2;
+
+        public ActivityWorker(String taskQueue) {
+            this.taskQueue = taskQueue;
+        }
+    }
+
+    @Data
+    public static class Route {
+        private boolean asyncDispatch = false;
+        private boolean eagerStart = false;
+        private int maxInFlight = 100;
+        private int batchSize = 100;
+        private Duration batchTimeout = Duration.ofMillis(500);
+        private int maxMessagesPerPoll = 0;
+        private int parallelism = 1;
+        private int parallelQueueSize = 1000;
+        private boolean virtualThreads = true;
+    }
+
+    @Data
+    public static class Audit {
+        public enum Backend { JPA, JOURNAL, SHARDED }
+
+        private Backend backend = Backend.JPA;
+        private boolean writeBehind = false;
+        private int queueCapacity = 10_000;
+        private int batchSize = 500;
+        private Duration flushInterval = Duration.ofMillis(50);
+        private Duration enqueueTimeout = Duration.ofSeconds(30);
+        private int flushRetries = 3;
+        private Duration flushRetryBackoff = Duration.ofMillis(100);
+        private Journal journal = new Journal();
+        private Shards shards = new Shards();
+    }
+
+    @Data
+    public static class Shards {
+        private int count = 4;
+        private String directory = "audit-shards";
+        private String connectionParameters = "journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000";
+        private int readConnections = 2;
+    }
+
+    @Data
+    public static class Journal {
+        public enum Fsync { NONE, INTERVAL, ALWAYS }
+
+        private String directory = "audit-journal";
+        private int segmentSize = 64 * 1024 * 1024;
+        private Fsync fsync = Fsync.INTERVAL;
+        private Duration fsyncInterval = Duration.ofMillis(100);
+        // Unset means: only with the journal backend
+        private Boolean exportEnabled;
+        private Duration exportInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Dedup {
+        public enum Mode { LINK, SKIP }
+
+        private boolean enabled = false;
+        private Mode mode = Mode.LINK;
+        private int cacheSize = 100_000;
+    }
+
+    @Data
+    public static class Intake {
+        public enum Mode { POLL, WATCH }
+
+        private Mode mode = Mode.POLL;
+        private Duration settleTime = Duration.ofMillis(50);
+        private Duration rescanInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Admission {
+        private boolean enabled = false;
+        private Duration targetScheduleToStart = Duration.ofMillis(200);
+        private Duration adjustInterval = Duration.ofSeconds(1);
+        private int minLimit = 1;
+        private double backoffRatio = 0.7;
+    }
+
+    @Data
+    public static class Payload {
+        private boolean compression = true;
+        private int compressionThreshold = 256;
+    }
+
+    @Data
+    public static class Hashing {
+        private static final List<String> STORABLE_EXTRA_DIGESTS =
+                List.of(MultiDigest.SHA_512, MultiDigest.SHA_1, MultiDigest.MD5, MultiDigest.CRC32C);
+
+        private boolean treeEnabled = false;
+        private long treeThreshold = 1024L * 1024 * 1024;
+        private int treeChunkSize = 8 * 1024 * 1024;
+        private int treeParallelism = 0;
+        private List<String> extraDigests = new ArrayList<>();
+        private boolean resumable = false;
+        private long resumableThreshold = 256L * 1024 * 1024;
+        private Duration checksumHeartbeatTimeout = Duration.ofSeconds(10);
+        private Duration checksumStartToCloseTimeout = Duration.ofMinutes(30);
+        private boolean asyncCompletion = false;
+        private int asyncParallelism = 0;
+        private int asyncQueueSize = 100;
+        private Duration asyncRetryDelay = Duration.ofMillis(500);
+
+        /**
+         * Only digests with a column in the audit record can be stored, so anything else is rejected at startup.
+         */
+        public void setExtraDigests(List<String> extraDigests) {
+            for (String algorithm : extraDigests) {
+                if (!STORABLE_EXTRA_DIGESTS.contains(algorithm)) {
+                    throw new IllegalArgumentException("Unsupported extra digest '" + algorithm + "', expected one of "
+                            + STORABLE_EXTRA_DIGESTS);
+                }
+            }
+            this.extraDigests = new ArrayList<>(extraDigests);
+        }
+    }
+
+    @Data
+    public static class Startup {
+        private boolean warmup = false;
+        private int warmupIterations = 200;
+        private int warmupFileSize = 256 * 1024;
     }
 }
@@ -0,0 +1,60 @@
+package garrich.demo.temporal.config;
+
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the worker factory in the earliest lifecycle phase, before the Camel context starts its routes,
+ * so the first file a route picks up can already be served by this process's worker (which eager workflow
+ * start relies on). The factory is shut down in the same phase, after the routes have stopped dispatching.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TemporalWorkerLifecycle implements SmartLifecycle {
+
+    public static final int PHASE = Integer.MIN_VALUE + 1000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final WorkerFactory workerFactory;
+    // Injected so the workers and their registrations exist before the factory starts
+    private final List<Worker> workers;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        workerFactory.start();
+        running = true;
+        log.info("Temporal workers started on task queues: {}", taskQueues());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workerFactory.shutdown();
+        workerFactory.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        log.info("Temporal workers stopped on task queues: {}", taskQueues());
+    }
+
+    private List<String> taskQueues() {
+        return workers.stream().map(Worker::getTaskQueue).toList();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,105 @@
+package garrich.demo.temporal.converter;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates whole payloads (metadata included) of at least {@code threshold} bytes, and only keeps the
+ * compressed form when it is actually smaller. Payloads without the {@link #ENCODING} marker pass through
+ * decoding untouched, so histories written before compression was enabled still decode.
+ */
+public class DeflatePayloadCodec implements PayloadCodec {
+
+    public static final String ENCODING = "binary/deflate";
+
+    private static final ByteString ENCODING_BYTES = ByteString.copyFromUtf8(ENCODING);
+
+    private final int threshold;
+
+    public DeflatePayloadCodec(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public List<Payload> encode(List<Payload> payloads) {
+        return payloads.stream().map(this::encode).toList();
+    }
+
+    @Override
+    public List<Payload> decode(List<Payload> payloads) {
+        return payloads.stream().map(this::decode).toList();
+    }
+
+    private Payload encode(Payload payload) {
+        byte[] raw = payload.toByteArray();
+        if (raw.length < threshold) {
+            return payload;
+        }
+
+        byte[] compressed = deflate(raw);
+        if (compressed.length >= raw.length) {
+            return payload;
+        }
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING_BYTES)
+                .setData(ByteString.copyFrom(compressed))
+                .build();
+    }
+
+    private Payload decode(Payload payload) {
+        if (!ENCODING_BYTES.equals(payload.getMetadataMap().get(EncodingKeys.METADATA_ENCODING_KEY))) {
+            return payload;
+        }
+
+        try {
+            return Payload.parseFrom(inflate(payload.getData().toByteArray()));
+        } catch (InvalidProtocolBufferException | DataFormatException e) {
+            throw new PayloadCodecException("Failed to decompress payload: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(data.length);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws DataFormatException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            var out = new ByteArrayOutputStream(data.length * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated deflate stream");
+                }
+                out.write(chunk, 0, inflated);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
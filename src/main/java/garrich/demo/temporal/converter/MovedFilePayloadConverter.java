@@ -0,0 +1,73 @@
+package garrich.demo.temporal.converter;
+
+import com.google.protobuf.ByteString;
+import garrich.demo.temporal.file.MovedFile;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.PayloadConverter;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Binary encoding for {@link MovedFile}: the UTF-8 path and checksum algorithm id, each prefixed by its
+ * length, followed by the raw digest bytes, so a SHA-256 takes 32 bytes instead of 64 hex characters plus
+ * JSON field names. Other values are left to the next converter in the chain.
+ */
+public class MovedFilePayloadConverter implements PayloadConverter {
+
+    public static final String ENCODING = "binary/moved-file";
+
+    private static final ByteString ENCODING_BYTES = ByteString.copyFromUtf8(ENCODING);
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Override
+    public String getEncodingType() {
+        return ENCODING;
+    }
+
+    @Override
+    public Optional<Payload> toData(Object value) throws DataConverterException {
+        if (!(value instanceof MovedFile movedFile)) {
+            return Optional.empty();
+        }
+
+        byte[] path = movedFile.path().getBytes(StandardCharsets.UTF_8);
+        byte[] algorithm = movedFile.algorithm().getBytes(StandardCharsets.US_ASCII);
+        byte[] digest = HEX.parseHex(movedFile.checksum());
+        var buffer = ByteBuffer.allocate(Integer.BYTES + path.length + 1 + algorithm.length + digest.length)
+                .putInt(path.length)
+                .put(path)
+                .put((byte) algorithm.length)
+                .put(algorithm)
+                .put(digest)
+                .flip();
+
+        return Optional.of(Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING_BYTES)
+                .setData(ByteString.copyFrom(buffer))
+                .build());
+    }
+
+    @Override
+    public <T> T fromData(Payload content, Class<T> valueType, Type valueGenericType) throws DataConverterException {
+        if (!valueType.isAssignableFrom(MovedFile.class)) {
+            throw new DataConverterException("Cannot decode " + ENCODING + " payload into " + valueType.getName());
+        }
+
+        var buffer = content.getData().asReadOnlyByteBuffer();
+        byte[] path = new byte[buffer.getInt()];
+        buffer.get(path);
+        byte[] algorithm = new byte[Byte.toUnsignedInt(buffer.get())];
+        buffer.get(algorithm);
+        byte[] digest = new byte[buffer.remaining()];
+        buffer.get(digest);
+
+        return valueType.cast(new MovedFile(new String(path, StandardCharsets.UTF_8), HEX.formatHex(digest),
+                new String(algorithm, StandardCharsets.US_ASCII)));
+    }
+}
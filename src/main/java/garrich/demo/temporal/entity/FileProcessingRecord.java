@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "file_processing_records")
+@Table(name = "file_processing_records", indexes = @Index(name = "idx_file_processing_records_checksum", columnList = "checksum"))
 public class FileProcessingRecord {
 
     @Id
@@ -25,6 +25,21 @@ public class FileProcessingRecord {
     @Column(name = "checksum")
     private String checksum;
 
+    @Column(name = "checksum_algorithm")
+    private String checksumAlgorithm;
+
+    @Column(name = "sha512")
+    private String sha512;
+
+    @Column(name = "sha1")
+    private String sha1;
+
+    @Column(name = "md5")
+    private String md5;
+
+    @Column(name = "crc32c")
+    private String crc32c;
+
     @Column(name = "operation")
     private String operation;
 
@@ -38,4 +53,9 @@ public class FileProcessingRecord {
         this.operation = operation;
         this.timestamp = LocalDateTime.now();
     }
+
+    public FileProcessingRecord(String originalPath, String newPath, String checksum, String checksumAlgorithm, String operation) {
+        this(originalPath, newPath, checksum, operation);
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
 }
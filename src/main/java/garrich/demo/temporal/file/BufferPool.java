@@ -0,0 +1,44 @@
+package garrich.demo.temporal.file;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small pool of fixed-size direct buffers shared by the file hashing and copy paths.
+ * Buffers are allocated lazily; when the pool is empty a fresh buffer is handed out and
+ * dropped on release if the pool is already full, so the retained memory stays bounded.
+ */
+public final class BufferPool {
+
+    public static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private static final BufferPool SHARED = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    public BufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+    }
+
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    public ByteBuffer acquire() {
+        var buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer.clear();
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize) {
+            buffers.offer(buffer.clear());
+        }
+    }
+}
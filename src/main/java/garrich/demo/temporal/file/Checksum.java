@@ -0,0 +1,8 @@
+package garrich.demo.temporal.file;
+
+/**
+ * Hex digest together with the id of the scheme that produced it: {@link FileHashing#ALGORITHM} for a plain
+ * SHA-256 or a {@link TreeHashing} id, which also names the chunk size needed to reproduce it.
+ */
+public record Checksum(String algorithm, String value) {
+}
@@ -0,0 +1,112 @@
+package garrich.demo.temporal.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streaming SHA-256 (or several {@link MultiDigest} algorithms at once) over a file with constant memory
+ * per call. Small and medium files are read through a pooled direct buffer; files above
+ * {@link #MAPPED_THRESHOLD} are hashed through memory-mapped windows of {@link #MAPPED_WINDOW_SIZE} bytes.
+ * The {@code cancellationCheck} overloads run the check before every buffer or window; a check that throws
+ * stops the read, e.g. once the activity doing the hashing was cancelled.
+ */
+public final class FileHashing {
+
+    public static final String ALGORITHM = "sha256";
+    public static final long MAPPED_THRESHOLD = 64L * 1024 * 1024;
+    public static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private FileHashing() {
+    }
+
+    public static final Runnable NO_CANCELLATION = () -> { };
+
+    public static String sha256Hex(Path path) {
+        return sha256Hex(path, NO_CANCELLATION);
+    }
+
+    public static String sha256Hex(Path path, Runnable cancellationCheck) {
+        if (!Files.exists(path)) {
+            throw new RuntimeException("File does not exist: " + path);
+        }
+
+        var digest = newSha256();
+        read(path, digest::update, cancellationCheck);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hex digests of the file for each requested algorithm, keyed by algorithm name, from a single read.
+     */
+    public static Map<String, String> digestsHex(Path path, Collection<String> algorithms) {
+        return digestsHex(path, algorithms, NO_CANCELLATION);
+    }
+
+    public static Map<String, String> digestsHex(Path path, Collection<String> algorithms, Runnable cancellationCheck) {
+        if (!Files.exists(path)) {
+            throw new RuntimeException("File does not exist: " + path);
+        }
+
+        var digests = MultiDigest.of(algorithms);
+        read(path, digests::update, cancellationCheck);
+        return digests.hex();
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static void read(Path path, Consumer<ByteBuffer> digest, Runnable cancellationCheck) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAPPED_THRESHOLD) {
+                updateMapped(digest, channel, cancellationCheck);
+            } else {
+                updateBuffered(digest, channel, cancellationCheck);
+            }
+            FileMetrics.bytesHashed(size);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + e.getMessage(), e);
+        }
+    }
+
+    private static void updateBuffered(Consumer<ByteBuffer> digest, FileChannel channel, Runnable cancellationCheck)
+            throws IOException {
+        var pool = BufferPool.shared();
+        var buffer = pool.acquire();
+        try {
+            while (channel.read(buffer) != -1) {
+                cancellationCheck.run();
+                buffer.flip();
+                digest.accept(buffer);
+                buffer.clear();
+            }
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private static void updateMapped(Consumer<ByteBuffer> digest, FileChannel channel, Runnable cancellationCheck)
+            throws IOException {
+        long size = channel.size();
+        for (long position = 0; position < size; position += MAPPED_WINDOW_SIZE) {
+            cancellationCheck.run();
+            long length = Math.min(MAPPED_WINDOW_SIZE, size - position);
+            digest.accept(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package garrich.demo.temporal.file;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Byte counters for the static file helpers, registered on the global registry that Spring Boot
+ * binds its meter registry to.
+ */
+public final class FileMetrics {
+
+    private static final Counter BYTES_HASHED = Counter.builder("file.bytes.hashed")
+            .description("Bytes fed into checksum digests")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter BYTES_MOVED = Counter.builder("file.bytes.moved")
+            .description("Bytes moved into the target directory")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry);
+
+    private FileMetrics() {
+    }
+
+    public static void bytesHashed(long bytes) {
+        BYTES_HASHED.increment(bytes);
+    }
+
+    public static void bytesMoved(long bytes) {
+        BYTES_MOVED.increment(bytes);
+    }
+}
@@ -0,0 +1,128 @@
+package garrich.demo.temporal.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves a file and computes its SHA-256 (or several digests) while reading it only once. Within one
+ * filesystem the file is renamed atomically and hashed in place; across filesystems the digests are
+ * updated from the same buffers that are written to the destination, and the source is deleted afterwards.
+ */
+public final class FileTransfer {
+
+    private FileTransfer() {
+    }
+
+    public static MovedFile moveAndHash(Path source, Path destination) {
+        var digests = moveAndDigest(source, destination, List.of(MultiDigest.SHA_256));
+        return new MovedFile(destination.toString(), digests.get(MultiDigest.SHA_256));
+    }
+
+    /**
+     * Same single-read move as {@link #moveAndHash}, computing every requested {@link MultiDigest} algorithm.
+     */
+    public static Map<String, String> moveAndDigest(Path source, Path destination, Collection<String> algorithms) {
+        if (!Files.exists(source)) {
+            throw new RuntimeException("Source file does not exist: " + source);
+        }
+
+        try {
+            Files.createDirectories(destination.getParent());
+            try {
+                Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+                FileMetrics.bytesMoved(Files.size(destination));
+                return FileHashing.digestsHex(destination, algorithms);
+            } catch (AtomicMoveNotSupportedException e) {
+                return moveByCopy(source, destination, algorithms);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to move file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The cross-filesystem half of {@link #moveAndDigest}: copies while hashing, then deletes the source.
+     */
+    static Map<String, String> moveByCopy(Path source, Path destination, Collection<String> algorithms)
+            throws IOException {
+        Map<String, String> digests;
+        try {
+            digests = copyAndDigest(source, destination, algorithms);
+        } catch (IOException | RuntimeException copyFailure) {
+            // The source is still intact, so drop the partial copy and let a retry start over
+            deletePartialCopy(destination, copyFailure);
+            throw copyFailure;
+        }
+        Files.delete(source);
+        return digests;
+    }
+
+    /**
+     * Moves a file without hashing it, for callers that checksum the destination some other way.
+     */
+    public static void move(Path source, Path destination) {
+        if (!Files.exists(source)) {
+            throw new RuntimeException("Source file does not exist: " + source);
+        }
+
+        try {
+            Files.createDirectories(destination.getParent());
+            try {
+                Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source, destination);
+            }
+            FileMetrics.bytesMoved(Files.size(destination));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to move file: " + e.getMessage(), e);
+        }
+    }
+
+    private static void deletePartialCopy(Path destination, Exception copyFailure) {
+        try {
+            Files.deleteIfExists(destination);
+        } catch (IOException e) {
+            copyFailure.addSuppressed(e);
+        }
+    }
+
+    private static Map<String, String> copyAndDigest(Path source, Path destination, Collection<String> algorithms)
+            throws IOException {
+        var digests = MultiDigest.of(algorithms);
+        long copied = 0;
+        var pool = BufferPool.shared();
+        var buffer = pool.acquire();
+
+        try (var in = FileChannel.open(source, StandardOpenOption.READ);
+             var out = FileChannel.open(destination, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                copied += buffer.remaining();
+                buffer.mark();
+                digests.update(buffer);
+                buffer.reset();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(false);
+        } finally {
+            pool.release(buffer);
+        }
+
+        Files.setLastModifiedTime(destination, Files.getLastModifiedTime(source));
+        FileMetrics.bytesHashed(copied);
+        FileMetrics.bytesMoved(copied);
+        return digests.hex();
+    }
+}
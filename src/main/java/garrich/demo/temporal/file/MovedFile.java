@@ -0,0 +1,38 @@
+package garrich.demo.temporal.file;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Where a file was moved and its checksum. Workflows started before the typed result returned the
+ * {@link #toString()} form ({@code path [SHA-256: hex]}) as a plain string, so that form still decodes.
+ */
+public record MovedFile(String path, String checksum, String algorithm) {
+
+    private static final String SHA256_LABEL = "SHA-256";
+
+    public MovedFile(String path, String sha256) {
+        this(path, sha256, FileHashing.ALGORITHM);
+    }
+
+    /**
+     * Parses the {@link #toString()} form, which is what a workflow started before the typed result returns.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static MovedFile parse(String value) {
+        int open = value.lastIndexOf(" [");
+        int separator = value.lastIndexOf(": ");
+        if (open < 0 || separator < open || !value.endsWith("]")) {
+            throw new IllegalArgumentException("Not a moved file result: " + value);
+        }
+
+        String label = value.substring(open + 2, separator);
+        String algorithm = SHA256_LABEL.equals(label) ? FileHashing.ALGORITHM : label;
+        return new MovedFile(value.substring(0, open), value.substring(separator + 2, value.length() - 1), algorithm);
+    }
+
+    @Override
+    public String toString() {
+        String label = FileHashing.ALGORITHM.equals(algorithm) ? SHA256_LABEL : algorithm;
+        return path + " [" + label + ": " + checksum + "]";
+    }
+}
@@ -0,0 +1,92 @@
+package garrich.demo.temporal.file;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Several digests fed from the same buffers, so one read of a file yields all of them. Algorithms use their
+ * JCA names ({@code SHA-256}, {@code SHA-512}, {@code SHA-1}, {@code MD5}, ...) plus {@link #CRC32C}.
+ */
+public final class MultiDigest {
+
+    public static final String SHA_256 = "SHA-256";
+    public static final String SHA_512 = "SHA-512";
+    public static final String SHA_1 = "SHA-1";
+    public static final String MD5 = "MD5";
+    public static final String CRC32C = "CRC32C";
+
+    private interface Sink {
+        void update(ByteBuffer buffer);
+
+        byte[] result();
+    }
+
+    private final Map<String, Sink> sinks = new LinkedHashMap<>();
+
+    private MultiDigest(Collection<String> algorithms) {
+        for (String algorithm : algorithms) {
+            sinks.putIfAbsent(algorithm, sink(algorithm));
+        }
+    }
+
+    public static MultiDigest of(Collection<String> algorithms) {
+        return new MultiDigest(algorithms);
+    }
+
+    /**
+     * Feeds the remaining bytes of the buffer to every digest and leaves the buffer fully consumed.
+     */
+    public void update(ByteBuffer buffer) {
+        for (Sink sink : sinks.values()) {
+            sink.update(buffer.duplicate());
+        }
+        buffer.position(buffer.limit());
+    }
+
+    public Map<String, String> hex() {
+        var hex = HexFormat.of();
+        Map<String, String> result = new LinkedHashMap<>();
+        sinks.forEach((algorithm, sink) -> result.put(algorithm, hex.formatHex(sink.result())));
+        return result;
+    }
+
+    private static Sink sink(String algorithm) {
+        if (CRC32C.equals(algorithm)) {
+            var crc = new CRC32C();
+            return new Sink() {
+                @Override
+                public void update(ByteBuffer buffer) {
+                    crc.update(buffer);
+                }
+
+                @Override
+                public byte[] result() {
+                    return ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array();
+                }
+            };
+        }
+
+        try {
+            var digest = MessageDigest.getInstance(algorithm);
+            return new Sink() {
+                @Override
+                public void update(ByteBuffer buffer) {
+                    digest.update(buffer);
+                }
+
+                @Override
+                public byte[] result() {
+                    return digest.digest();
+                }
+            };
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Digest algorithm not available: " + algorithm, e);
+        }
+    }
+}
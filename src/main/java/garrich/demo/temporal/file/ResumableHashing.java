@@ -0,0 +1,63 @@
+package garrich.demo.temporal.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * SHA-256 over memory-mapped windows that reports a {@link Checkpoint} after every window and can resume
+ * from one. A checkpoint is only reused when the file still has the same size and modification time.
+ * {@code cancellationCheck} runs before every window, as in {@link FileHashing}.
+ */
+public final class ResumableHashing {
+
+    public static final long WINDOW_SIZE = FileHashing.MAPPED_WINDOW_SIZE;
+
+    public record Checkpoint(long offset, String state, long fileSize, long lastModified) {
+    }
+
+    private ResumableHashing() {
+    }
+
+    public static String sha256Hex(Path path, Optional<Checkpoint> resumeFrom, Consumer<Checkpoint> progress) {
+        return sha256Hex(path, resumeFrom, progress, FileHashing.NO_CANCELLATION);
+    }
+
+    public static String sha256Hex(Path path, Optional<Checkpoint> resumeFrom, Consumer<Checkpoint> progress,
+                                   Runnable cancellationCheck) {
+        if (!Files.exists(path)) {
+            throw new RuntimeException("File does not exist: " + path);
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+            var sha256 = resumeFrom
+                    .filter(checkpoint -> checkpoint.fileSize() == size && checkpoint.lastModified() == lastModified)
+                    .map(checkpoint -> ResumableSha256.resume(checkpoint.state(), checkpoint.offset()))
+                    .orElseGet(ResumableSha256::new);
+            long resumedAt = sha256.length();
+
+            while (sha256.length() < size) {
+                cancellationCheck.run();
+                long position = sha256.length();
+                long length = Math.min(WINDOW_SIZE, size - position);
+                sha256.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                if (sha256.isAtBlockBoundary()) {
+                    progress.accept(new Checkpoint(sha256.length(), sha256.state(), size, lastModified));
+                }
+            }
+
+            FileMetrics.bytesHashed(size - resumedAt);
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + e.getMessage(), e);
+        }
+    }
+}
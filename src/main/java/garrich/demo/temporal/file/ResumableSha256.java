@@ -0,0 +1,175 @@
+package garrich.demo.temporal.file;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Plain-Java SHA-256 (FIPS 180-4) whose intermediate state can be exported at any 64-byte block boundary
+ * and restored later, which {@link java.security.MessageDigest} does not allow. It runs several times slower
+ * than the JDK implementation (which uses the CPU's SHA instructions), so it is only worth using where
+ * resuming a long hash saves more than that.
+ */
+public final class ResumableSha256 {
+
+    public static final int BLOCK_SIZE = 64;
+
+    private static final int[] INITIAL = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+    };
+
+    private static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+    };
+
+    private final int[] h;
+    private final int[] w = new int[64];
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+    private long length;
+
+    public ResumableSha256() {
+        this(INITIAL.clone(), 0);
+    }
+
+    private ResumableSha256(int[] h, long length) {
+        this.h = h;
+        this.length = length;
+    }
+
+    /**
+     * Restores a hash from {@link #state()} after {@code length} bytes, which must be a multiple of the block size.
+     */
+    public static ResumableSha256 resume(String state, long length) {
+        if (length % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("Can only resume at a block boundary, not at " + length);
+        }
+
+        var bytes = ByteBuffer.wrap(HexFormat.of().parseHex(state));
+        int[] h = new int[INITIAL.length];
+        for (int i = 0; i < h.length; i++) {
+            h[i] = bytes.getInt();
+        }
+        return new ResumableSha256(h, length);
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public boolean isAtBlockBoundary() {
+        return block.position() == 0;
+    }
+
+    /**
+     * The chaining state as hex; only meaningful at a block boundary.
+     */
+    public String state() {
+        if (!isAtBlockBoundary()) {
+            throw new IllegalStateException("State is only exportable at a block boundary");
+        }
+
+        var bytes = ByteBuffer.allocate(h.length * Integer.BYTES);
+        for (int value : h) {
+            bytes.putInt(value);
+        }
+        return HexFormat.of().formatHex(bytes.array());
+    }
+
+    public void update(ByteBuffer data) {
+        length += data.remaining();
+
+        if (block.position() > 0) {
+            int fill = Math.min(block.remaining(), data.remaining());
+            block.put(block.position(), data, data.position(), fill);
+            block.position(block.position() + fill);
+            data.position(data.position() + fill);
+            if (!block.hasRemaining()) {
+                compress(block.flip());
+                block.clear();
+            }
+        }
+        while (data.remaining() >= BLOCK_SIZE) {
+            compress(data);
+        }
+        if (data.hasRemaining()) {
+            block.put(data);
+        }
+    }
+
+    public byte[] digest() {
+        long bitLength = length * 8;
+        block.put((byte) 0x80);
+        if (block.remaining() < Long.BYTES) {
+            while (block.hasRemaining()) {
+                block.put((byte) 0);
+            }
+            compress(block.flip());
+            block.clear();
+        }
+        while (block.remaining() > Long.BYTES) {
+            block.put((byte) 0);
+        }
+        block.putLong(bitLength);
+        compress(block.flip());
+        block.clear();
+
+        var digest = ByteBuffer.allocate(h.length * Integer.BYTES);
+        for (int value : h) {
+            digest.putInt(value);
+        }
+        Arrays.fill(h, 0);
+        return digest.array();
+    }
+
+    /**
+     * Processes the next 64 bytes of {@code data} (as big-endian words) and advances its position.
+     */
+    private void compress(ByteBuffer data) {
+        boolean bigEndian = data.order() == ByteOrder.BIG_ENDIAN;
+        for (int t = 0; t < 16; t++) {
+            int word = data.getInt();
+            w[t] = bigEndian ? word : Integer.reverseBytes(word);
+        }
+        for (int t = 16; t < 64; t++) {
+            int s0 = Integer.rotateRight(w[t - 15], 7) ^ Integer.rotateRight(w[t - 15], 18) ^ (w[t - 15] >>> 3);
+            int s1 = Integer.rotateRight(w[t - 2], 17) ^ Integer.rotateRight(w[t - 2], 19) ^ (w[t - 2] >>> 10);
+            w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+        }
+
+        int a = h[0], b = h[1], c = h[2], d = h[3], e = h[4], f = h[5], g = h[6], hh = h[7];
+        for (int t = 0; t < 64; t++) {
+            int s1 = Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+            int ch = (e & f) ^ (~e & g);
+            int temp1 = hh + s1 + ch + K[t] + w[t];
+            int s0 = Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+            int maj = (a & b) ^ (a & c) ^ (b & c);
+            int temp2 = s0 + maj;
+
+            hh = g;
+            g = f;
+            f = e;
+            e = d + temp1;
+            d = c;
+            c = b;
+            b = a;
+            a = temp1 + temp2;
+        }
+
+        h[0] += a;
+        h[1] += b;
+        h[2] += c;
+        h[3] += d;
+        h[4] += e;
+        h[5] += f;
+        h[6] += g;
+        h[7] += hh;
+    }
+}
@@ -0,0 +1,27 @@
+package garrich.demo.temporal.file;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public final class TimestampedFileNames {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssnnnnnnnn");
+
+    private TimestampedFileNames() {
+    }
+
+    public static String withTimestamp(String fileName) {
+        return withTimestamp(fileName, LocalDateTime.now());
+    }
+
+    public static String withTimestamp(String fileName, LocalDateTime time) {
+        String timestamp = time.format(TIMESTAMP_FORMAT);
+        int dotIndex = fileName.lastIndexOf('.');
+        if (dotIndex > 0) {
+            String name = fileName.substring(0, dotIndex);
+            String extension = fileName.substring(dotIndex);
+            return name + "_" + timestamp + extension;
+        }
+        return fileName + "_" + timestamp;
+    }
+}
@@ -0,0 +1,88 @@
+package garrich.demo.temporal.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Two-level SHA-256 tree hash that can use several cores on one file. The file is split into fixed-size
+ * chunks, each chunk is hashed from its own memory-mapped region as {@code SHA-256(0x00 || chunk)} on the
+ * given pool, and the root is {@code SHA-256(0x01 || leaf_0 || ... || leaf_n-1)}. The prefixes keep leaf and
+ * root digests from ever colliding. The result depends on the chunk size, which is part of the algorithm id.
+ * {@code cancellationCheck} runs before every chunk, as in {@link FileHashing}.
+ */
+public final class TreeHashing {
+
+    public static final String ALGORITHM_PREFIX = "sha256-tree-";
+
+    private static final byte LEAF = 0x00;
+    private static final byte ROOT = 0x01;
+
+    private TreeHashing() {
+    }
+
+    public static String algorithm(int chunkSize) {
+        return ALGORITHM_PREFIX + chunkSize;
+    }
+
+    public static String treeSha256Hex(Path path, int chunkSize, ForkJoinPool pool) {
+        return treeSha256Hex(path, chunkSize, pool, FileHashing.NO_CANCELLATION);
+    }
+
+    public static String treeSha256Hex(Path path, int chunkSize, ForkJoinPool pool, Runnable cancellationCheck) {
+        if (!Files.exists(path)) {
+            throw new RuntimeException("File does not exist: " + path);
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Callable<byte[]>> leaves = new ArrayList<>();
+            for (long position = 0; position < size || leaves.isEmpty(); position += chunkSize) {
+                long start = position;
+                long length = Math.min(chunkSize, size - position);
+                leaves.add(() -> {
+                    cancellationCheck.run();
+                    return leaf(channel, start, length);
+                });
+            }
+
+            var root = FileHashing.newSha256();
+            root.update(ROOT);
+            for (Future<byte[]> leaf : pool.invokeAll(leaves)) {
+                root.update(leaf.get());
+            }
+            FileMetrics.bytesHashed(size);
+            return HexFormat.of().formatHex(root.digest());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            // Lets the cancellation check's own exception through unwrapped
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to hash chunk: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing " + path, e);
+        }
+    }
+
+    private static byte[] leaf(FileChannel channel, long position, long length) throws IOException {
+        MessageDigest digest = FileHashing.newSha256();
+        digest.update(LEAF);
+        if (length > 0) {
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,40 @@
+package garrich.demo.temporal.metrics;
+
+import garrich.demo.temporal.service.AuditSink;
+import garrich.demo.temporal.service.ChecksumIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class FileProcessingMeterBinder implements MeterBinder {
+
+    private final AuditSink auditSink;
+    private final ChecksumIndex checksumIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("file.audit.queue.depth", auditSink, AuditSink::getQueueDepth)
+                .description("Audit records accepted but not yet durably written")
+                .register(registry);
+        FunctionCounter.builder("file.audit.records.dropped", auditSink, AuditSink::getDroppedRecords)
+                .description("Audit records accepted but lost because they could not be written")
+                .register(registry);
+
+        FunctionCounter.builder("file.dedup.lookups", checksumIndex, ChecksumIndex::getHits)
+                .description("Checksum index lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("file.dedup.lookups", checksumIndex, ChecksumIndex::getMisses)
+                .description("Checksum index lookups")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("file.dedup.index.size", checksumIndex, ChecksumIndex::size)
+                .description("Checksums held in the in-memory dedup index")
+                .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package garrich.demo.temporal.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.temporal.activity.Activity;
+import lombok.RequiredArgsConstructor;
+import org.apache.camel.Exchange;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-stage timers for the file pipeline. Every stage is recorded under one timer name, tagged with
+ * the stage, the Camel route and the workflow type, so the stages of one route can be compared side by side.
+ * Timers are cached per tag combination, so the hot paths don't build and look up a meter on every call.
+ */
+@Component
+@RequiredArgsConstructor
+public class FileProcessingMetrics {
+
+    public static final String STAGE_TIMER = "file.processing.stage";
+    public static final String NONE = "none";
+
+    private record StageKey(String stage, String routeId, String workflowType) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<StageKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public Timer stage(String stage, String routeId, String workflowType) {
+        return timers.computeIfAbsent(new StageKey(stage, routeId, workflowType), key -> Timer.builder(STAGE_TIMER)
+                .description("Time spent per file in each processing stage")
+                .tag("stage", key.stage())
+                .tag("route", key.routeId())
+                .tag("workflow_type", key.workflowType())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Activities can be invoked by several workflow types; tag them with the calling one when known.
+     */
+    public Timer activityStage(String stage) {
+        String workflowType;
+        try {
+            workflowType = Activity.getExecutionContext().getInfo().getWorkflowType();
+        } catch (IllegalStateException e) {
+            workflowType = NONE;
+        }
+        return stage(stage, NONE, workflowType);
+    }
+
+    /**
+     * Delay between the file's last modification and its pickup by the route.
+     */
+    public void recordPickup(String routeId, String workflowType, Exchange exchange) {
+        Long lastModified = exchange.getIn().getHeader(Exchange.FILE_LAST_MODIFIED, Long.class);
+        if (lastModified != null) {
+            long delay = Math.max(0, System.currentTimeMillis() - lastModified);
+            stage("pickup", routeId, workflowType).record(Duration.ofMillis(delay));
+        }
+    }
+}
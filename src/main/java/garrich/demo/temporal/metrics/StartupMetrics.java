@@ -0,0 +1,52 @@
+package garrich.demo.temporal.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.spi.CamelEvent;
+import org.apache.camel.support.EventNotifierSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time from JVM start to the first exchange any route completes, i.e. until the first file is processed
+ * after a (re)start. Complements Spring Boot's {@code application.ready.time}, which stops at context refresh.
+ */
+@Slf4j
+@Component
+public class StartupMetrics extends EventNotifierSupport {
+
+    private final AtomicLong firstFileMillis = new AtomicLong(-1);
+
+    public StartupMetrics(MeterRegistry meterRegistry) {
+        setIgnoreCamelContextEvents(true);
+        setIgnoreRouteEvents(true);
+        setIgnoreServiceEvents(true);
+        setIgnoreExchangeCreatedEvent(true);
+        setIgnoreExchangeFailedEvents(true);
+        setIgnoreExchangeRedeliveryEvents(true);
+        setIgnoreExchangeSendingEvents(true);
+        setIgnoreExchangeSentEvents(true);
+        setIgnoreStepEvents(true);
+
+        TimeGauge.builder("file.startup.first.file", firstFileMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the first file was processed, -1 until then")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled(CamelEvent event) {
+        return firstFileMillis.get() < 0 && event instanceof CamelEvent.ExchangeCompletedEvent;
+    }
+
+    @Override
+    public void notify(CamelEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstFileMillis.compareAndSet(-1, uptime)) {
+            log.info("First file processed {} ms after JVM start", uptime);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package garrich.demo.temporal.metrics;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator view ({@code /actuator/workflowcache}) of the sticky workflow cache, built from the
+ * {@code temporal_sticky_cache_*} meters the worker reports. A low hit ratio or a growing forced eviction
+ * count means workflow tasks are replaying full histories because the cache or thread pool is too small.
+ */
+@Component
+@Endpoint(id = "workflowcache")
+@RequiredArgsConstructor
+public class WorkflowCacheEndpoint {
+
+    public record WorkflowCacheStats(int configuredSize, int maxWorkflowThreads, double cachedWorkflows,
+                                     double activeWorkflowThreads, double hits, double misses,
+                                     double hitRatio, double forcedEvictions) {
+    }
+
+    private final TemporalProperties temporalProperties;
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public WorkflowCacheStats stats() {
+        var worker = temporalProperties.getWorker();
+        double hits = counter("temporal_sticky_cache_hit");
+        double misses = counter("temporal_sticky_cache_miss");
+        double lookups = hits + misses;
+
+        return new WorkflowCacheStats(
+                worker.getWorkflowCacheSize(),
+                worker.getMaxWorkflowThreadCount(),
+                gauge("temporal_sticky_cache_size"),
+                gauge("temporal_workflow_active_thread_count"),
+                hits,
+                misses,
+                lookups == 0 ? 0 : hits / lookups,
+                counter("temporal_sticky_cache_total_forced_eviction"));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+}
@@ -4,6 +4,10 @@ import garrich.demo.temporal.entity.FileProcessingRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface FileProcessingRepository extends JpaRepository<FileProcessingRecord, Long> {
+
+    Optional<FileProcessingRecord> findFirstByChecksumAndOperationOrderByIdDesc(String checksum, String operation);
 }
@@ -0,0 +1,150 @@
+package garrich.demo.temporal.route;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.support.ScheduledPollConsumer;
+import org.apache.camel.support.service.ServiceHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the per-route {@link AdmissionLimit}s. With {@code temporal.admission.enabled} it samples the
+ * schedule-to-start latency the Temporal worker reports to the meter registry and shrinks every limit when
+ * tasks wait longer than {@code target-schedule-to-start} for a free worker slot, and it suspends a route's
+ * file consumer while its limit is reached. An interval without new latency samples leaves the limits as they
+ * are, so they only grow on an actual signal. Otherwise the limits stay fixed at {@code max-in-flight}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdmissionController {
+
+    private static final List<String> SCHEDULE_TO_START_METERS = List.of(
+            "temporal_workflow_task_schedule_to_start_latency",
+            "temporal_activity_schedule_to_start_latency");
+
+    private record Sample(long count, double totalMillis) {
+    }
+
+    private final TemporalProperties temporalProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdmissionLimit> limits = new ConcurrentHashMap<>();
+    private final Map<Meter.Id, Sample> samples = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        var admission = temporalProperties.getAdmission();
+        if (!admission.isEnabled()) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("admission-controller").daemon().factory());
+        long interval = admission.getAdjustInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::adjust, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Admission control started (target schedule-to-start: {})", admission.getTargetScheduleToStart());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public AdmissionLimit limit(CamelContext camelContext, String routeId) {
+        return limits.computeIfAbsent(routeId, id -> {
+            var admission = temporalProperties.getAdmission();
+            int maxInFlight = temporalProperties.getRoute(id).getMaxInFlight();
+            AdmissionLimit limit = admission.isEnabled()
+                    ? new AdmissionLimit(id, admission.getMinLimit(), maxInFlight,
+                            () -> suspendConsumer(camelContext, id), () -> resumeConsumer(camelContext, id))
+                    : new AdmissionLimit(id, maxInFlight);
+
+            Gauge.builder("file.admission.limit", limit, AdmissionLimit::getLimit)
+                    .description("Workflows a route may keep in flight")
+                    .tag("route", id)
+                    .register(meterRegistry);
+            Gauge.builder("file.admission.in.flight", limit, AdmissionLimit::getInFlight)
+                    .description("Workflows a route currently keeps in flight")
+                    .tag("route", id)
+                    .register(meterRegistry);
+            if (admission.isEnabled()) {
+                Gauge.builder("file.admission.paused", limit, l -> l.isPaused() ? 1 : 0)
+                        .description("Whether the route's file consumer is suspended by admission control")
+                        .tag("route", id)
+                        .register(meterRegistry);
+            }
+            return limit;
+        });
+    }
+
+    private void adjust() {
+        try {
+            var admission = temporalProperties.getAdmission();
+            var sampled = scheduleToStartMillis();
+            if (sampled.isEmpty()) {
+                log.trace("No new schedule-to-start samples, keeping admission limits");
+                return;
+            }
+            double observed = sampled.getAsDouble();
+            boolean overloaded = observed > admission.getTargetScheduleToStart().toMillis();
+            if (overloaded) {
+                log.debug("Schedule-to-start latency {} ms exceeds target, backing off", observed);
+            }
+            limits.values().forEach(limit -> limit.adjust(overloaded, admission.getBackoffRatio()));
+        } catch (RuntimeException e) {
+            log.error("Failed to adjust admission limits: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Mean schedule-to-start latency since the previous sample, taking the worst of the workflow task and
+     * activity task meters, or empty when none of them recorded anything new.
+     */
+    private OptionalDouble scheduleToStartMillis() {
+        var worst = OptionalDouble.empty();
+        for (String name : SCHEDULE_TO_START_METERS) {
+            for (Timer timer : meterRegistry.find(name).timers()) {
+                var current = new Sample(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+                var previous = samples.put(timer.getId(), current);
+                if (previous != null && current.count() > previous.count()) {
+                    double mean = (current.totalMillis() - previous.totalMillis()) / (current.count() - previous.count());
+                    worst = OptionalDouble.of(Math.max(worst.orElse(0), mean));
+                }
+            }
+        }
+        return worst;
+    }
+
+    private void suspendConsumer(CamelContext camelContext, String routeId) {
+        log.debug("Suspending consumer of {} at its admission limit", routeId);
+        ServiceHelper.suspendService(camelContext.getRoute(routeId).getConsumer());
+    }
+
+    private void resumeConsumer(CamelContext camelContext, String routeId) {
+        log.debug("Resuming consumer of {}", routeId);
+        var consumer = camelContext.getRoute(routeId).getConsumer();
+        ServiceHelper.resumeService(consumer);
+        // Watch events that arrived while suspended were skipped, so look at the directory again right away
+        if (consumer instanceof ScheduledPollConsumer polling && polling.getScheduler() instanceof DirectoryWatchScheduler watch) {
+            watch.requestScan();
+        }
+    }
+}
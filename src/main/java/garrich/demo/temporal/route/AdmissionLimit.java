@@ -0,0 +1,127 @@
+package garrich.demo.temporal.route;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for the workflows one route keeps in flight. The limit starts at the route's
+ * {@code max-in-flight} and is moved by {@link AdmissionController} between its minimum and that maximum.
+ * With pausing enabled the route's consumer is suspended while the limit is reached, so new files wait
+ * in the source directory instead of being picked up and blocked in memory. A fixed limit never pauses and
+ * only blocks {@link #acquire()}.
+ */
+@Slf4j
+public class AdmissionLimit {
+
+    @Getter
+    private final String routeId;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Runnable pause;
+    private final Runnable resume;
+    private final boolean pausing;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile boolean paused;
+
+    AdmissionLimit(String routeId, int minLimit, int maxLimit, Runnable pause, Runnable resume) {
+        this(routeId, minLimit, maxLimit, pause, resume, true);
+    }
+
+    /**
+     * A limit fixed at {@code maxLimit} that never pauses the route.
+     */
+    AdmissionLimit(String routeId, int maxLimit) {
+        this(routeId, maxLimit, maxLimit, () -> { }, () -> { }, false);
+    }
+
+    private AdmissionLimit(String routeId, int minLimit, int maxLimit, Runnable pause, Runnable resume, boolean pausing) {
+        this.routeId = routeId;
+        this.minLimit = Math.min(minLimit, maxLimit);
+        this.maxLimit = maxLimit;
+        this.pause = pause;
+        this.resume = resume;
+        this.pausing = pausing;
+        this.limit = maxLimit;
+    }
+
+    public void acquire() throws InterruptedException {
+        boolean pauseNow;
+        lock.lock();
+        try {
+            while (inFlight >= limit) {
+                available.await();
+            }
+            inFlight++;
+            pauseNow = pausing && !paused && inFlight >= limit;
+            paused |= pauseNow;
+        } finally {
+            lock.unlock();
+        }
+        if (pauseNow) {
+            pause.run();
+        }
+    }
+
+    public void release() {
+        boolean resumeNow;
+        lock.lock();
+        try {
+            inFlight--;
+            available.signal();
+            resumeNow = paused && inFlight < limit;
+            paused &= !resumeNow;
+        } finally {
+            lock.unlock();
+        }
+        if (resumeNow) {
+            resume.run();
+        }
+    }
+
+    /**
+     * Backs the limit off multiplicatively when tasks wait longer than the target to be picked up by a
+     * worker, and otherwise grows it by one while the route is actually using all of it.
+     */
+    void adjust(boolean overloaded, double backoffRatio) {
+        boolean resumeNow;
+        lock.lock();
+        try {
+            int previous = limit;
+            if (overloaded) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            } else if (inFlight >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            if (limit != previous) {
+                log.debug("Admission limit for {} changed from {} to {}", routeId, previous, limit);
+                available.signalAll();
+            }
+            resumeNow = paused && inFlight < limit;
+            paused &= !resumeNow;
+        } finally {
+            lock.unlock();
+        }
+        if (resumeNow) {
+            resume.run();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+}
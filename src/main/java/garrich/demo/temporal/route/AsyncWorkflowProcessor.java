@@ -0,0 +1,72 @@
+package garrich.demo.temporal.route;
+
+import garrich.demo.temporal.file.MovedFile;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.AsyncProcessorSupport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Starts a workflow per file without blocking the Camel consumer thread until it completes.
+ * The exchange (and therefore the file consumer's commit) is completed from the workflow result
+ * future, while the route's {@link AdmissionLimit} caps how many workflows it keeps in flight.
+ */
+@Slf4j
+public class AsyncWorkflowProcessor extends AsyncProcessorSupport {
+
+    private final AdmissionLimit admission;
+    private final Timer startTimer;
+    private final Timer workflowTimer;
+    private final Function<String, CompletableFuture<MovedFile>> workflowStarter;
+
+    public AsyncWorkflowProcessor(AdmissionLimit admission, Timer startTimer, Timer workflowTimer,
+                                  Function<String, CompletableFuture<MovedFile>> workflowStarter) {
+        this.admission = admission;
+        this.startTimer = startTimer;
+        this.workflowTimer = workflowTimer;
+        this.workflowStarter = workflowStarter;
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        String filePath = exchange.getIn().getHeader("CamelFileAbsolutePath", String.class);
+
+        try {
+            admission.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<MovedFile> result;
+        try {
+            result = startTimer.record(() -> workflowStarter.apply(filePath));
+        } catch (RuntimeException e) {
+            admission.release();
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        result.whenComplete((movedFile, error) -> {
+            workflowTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            admission.release();
+            if (error != null) {
+                log.error("Workflow failed for {}", filePath, error);
+                exchange.setException(error);
+            } else {
+                exchange.getIn().setBody(movedFile);
+            }
+            callback.done(false);
+        });
+        return false;
+    }
+}
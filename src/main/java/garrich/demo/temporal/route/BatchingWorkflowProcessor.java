@@ -0,0 +1,177 @@
+package garrich.demo.temporal.route;
+
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.workflow.BatchFileResult;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.AsyncProcessorSupport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Size- and time-bounded aggregator that hands files to one batch workflow. Exchanges stay open
+ * until the batch workflow returns, so the file consumer only commits a file once its own result
+ * is known and files that failed inside the batch are retried on the next poll. A file that was moved
+ * but not checksummed can't be retried from the source directory; its exchange fails with the moved path
+ * as body. Batches flushed by the timeout wait for admission on their own thread, not the timer's.
+ */
+@Slf4j
+public class BatchingWorkflowProcessor extends AsyncProcessorSupport {
+
+    private record PendingFile(String filePath, Exchange exchange, AsyncCallback callback) {
+    }
+
+    private final int batchSize;
+    private final Duration batchTimeout;
+    private final AdmissionLimit admission;
+    private final Timer startTimer;
+    private final Timer workflowTimer;
+    private final Function<List<String>, CompletableFuture<List<BatchFileResult>>> workflowStarter;
+
+    private ScheduledExecutorService timer;
+    private ExecutorService dispatcher;
+    private List<PendingFile> pending = new ArrayList<>();
+    private ScheduledFuture<?> pendingTimeout;
+
+    public BatchingWorkflowProcessor(int batchSize, Duration batchTimeout, AdmissionLimit admission,
+                                     Timer startTimer, Timer workflowTimer,
+                                     Function<List<String>, CompletableFuture<List<BatchFileResult>>> workflowStarter) {
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+        this.admission = admission;
+        this.startTimer = startTimer;
+        this.workflowTimer = workflowTimer;
+        this.workflowStarter = workflowStarter;
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        String filePath = exchange.getIn().getHeader("CamelFileAbsolutePath", String.class);
+
+        List<PendingFile> batch = null;
+        synchronized (this) {
+            pending.add(new PendingFile(filePath, exchange, callback));
+            if (pending.size() >= batchSize) {
+                batch = takePending();
+            } else if (pendingTimeout == null) {
+                pendingTimeout = timer.schedule(this::flushOnTimeout, batchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return false;
+    }
+
+    private void flushOnTimeout() {
+        List<PendingFile> batch;
+        synchronized (this) {
+            pendingTimeout = null;
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatcher.execute(() -> dispatch(batch));
+        }
+    }
+
+    private List<PendingFile> takePending() {
+        if (pendingTimeout != null) {
+            pendingTimeout.cancel(false);
+            pendingTimeout = null;
+        }
+        var batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingFile> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            admission.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.forEach(file -> fail(file, e));
+            return;
+        }
+
+        var filePaths = batch.stream().map(PendingFile::filePath).toList();
+        log.info("Starting batch workflow for {} files", filePaths.size());
+
+        long started = System.nanoTime();
+        CompletableFuture<List<BatchFileResult>> result;
+        try {
+            result = startTimer.record(() -> workflowStarter.apply(filePaths));
+        } catch (RuntimeException e) {
+            admission.release();
+            batch.forEach(file -> fail(file, e));
+            return;
+        }
+
+        result.whenComplete((results, error) -> {
+            workflowTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            admission.release();
+            if (error != null) {
+                log.error("Batch workflow failed for {} files", batch.size(), error);
+                batch.forEach(file -> fail(file, error));
+                return;
+            }
+
+            var resultsByPath = results.stream()
+                    .collect(Collectors.toMap(BatchFileResult::filePath, Function.identity(), (a, b) -> a));
+            for (PendingFile file : batch) {
+                var fileResult = resultsByPath.get(file.filePath());
+                if (fileResult == null) {
+                    fail(file, new RuntimeException("No batch result for file: " + file.filePath()));
+                } else if (fileResult.error() != null && fileResult.movedFilePath() != null) {
+                    log.warn("File {} was moved to {} but not checksummed: {}", file.filePath(), fileResult.movedFilePath(), fileResult.error());
+                    file.exchange().getIn().setBody(fileResult.movedFilePath());
+                    fail(file, new RuntimeException("Failed to checksum file moved to " + fileResult.movedFilePath()
+                            + ": " + fileResult.error()));
+                } else if (fileResult.error() != null) {
+                    fail(file, new RuntimeException("Failed to process file: " + fileResult.error()));
+                } else {
+                    file.exchange().getIn().setBody(new MovedFile(fileResult.movedFilePath(), fileResult.checksum(), fileResult.checksumAlgorithm()));
+                    file.callback().done(false);
+                }
+            }
+        });
+    }
+
+    private void fail(PendingFile file, Throwable error) {
+        file.exchange().setException(error);
+        file.callback().done(false);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("batch-timer").daemon().factory());
+        dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-dispatch-", 0).factory());
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        List<PendingFile> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        dispatch(batch);
+        timer.shutdown();
+        dispatcher.shutdown();
+    }
+}
@@ -0,0 +1,212 @@
+package garrich.demo.temporal.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Consumer;
+import org.apache.camel.component.file.GenericFile;
+import org.apache.camel.component.file.GenericFileFilter;
+import org.apache.camel.spi.ScheduledPollConsumerScheduler;
+import org.apache.camel.support.service.ServiceSupport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camel poll scheduler driven by {@link WatchService} events (inotify on Linux) instead of a fixed delay.
+ * A poll runs {@code settleTime} after the first create/modify event of a burst, plus a periodic rescan as a
+ * safety net for lost or overflowed events. As a file filter it accepts a file once neither a watch event nor
+ * its modification time shows a write within the settle time, and, if an earlier poll already saw the file,
+ * its size still matches that poll; partially written files are left for a later poll. A quiet file is
+ * therefore taken on the first poll that sees it. {@link #requestScan()} runs a poll right away, e.g. when a
+ * suspended consumer resumes and events that arrived meanwhile would otherwise wait for the rescan.
+ */
+@Slf4j
+public class DirectoryWatchScheduler extends ServiceSupport implements ScheduledPollConsumerScheduler, GenericFileFilter<File> {
+
+    private final String routeId;
+    private final Path directory;
+    private final long settleMillis;
+    private final long rescanMillis;
+    private static final long WAKE_UP_MILLIS = 100;
+
+    private final Map<String, Long> lastEventAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> sizeAtLastPoll = new ConcurrentHashMap<>();
+
+    private CamelContext camelContext;
+    private Runnable task;
+    private WatchService watchService;
+    private volatile Thread watchThread;
+    private volatile boolean heldBack;
+    private volatile boolean scanRequested;
+
+    public DirectoryWatchScheduler(String routeId, Path directory, Duration settleTime, Duration rescanInterval) {
+        this.routeId = routeId;
+        this.directory = directory;
+        this.settleMillis = settleTime.toMillis();
+        this.rescanMillis = rescanInterval.toMillis();
+    }
+
+    @Override
+    public void onInit(Consumer consumer) {
+    }
+
+    @Override
+    public void scheduleTask(Runnable task) {
+        this.task = task;
+    }
+
+    @Override
+    public void startScheduler() {
+        if (watchThread != null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to watch directory: " + directory, e);
+        }
+
+        watchThread = Thread.ofPlatform().name("file-watch-" + routeId).daemon().start(this::watchLoop);
+        log.info("Watching {} for route {}", directory, routeId);
+    }
+
+    @Override
+    public boolean isSchedulerStarted() {
+        return watchThread != null;
+    }
+
+    @Override
+    public void unscheduleTask() {
+        stopWatching();
+    }
+
+    @Override
+    public boolean accept(GenericFile<File> file) {
+        if (file.isDirectory()) {
+            return false;
+        }
+
+        String fileName = file.getFileName();
+        long now = System.currentTimeMillis();
+        long lastChange = Math.max(file.getLastModified(), lastEventAt.getOrDefault(fileName, 0L));
+        Long previousSize = sizeAtLastPoll.put(fileName, file.getFileLength());
+        // A size check needs an earlier poll; on the first one a quiet settle window is enough
+        boolean grew = previousSize != null && previousSize != file.getFileLength();
+        if (grew || now - lastChange < settleMillis) {
+            heldBack = true;
+            return false;
+        }
+
+        lastEventAt.remove(fileName);
+        sizeAtLastPoll.remove(fileName);
+        return true;
+    }
+
+    /**
+     * Runs a poll as soon as the watch thread wakes up, without waiting for events or the settle time.
+     */
+    public void requestScan() {
+        scanRequested = true;
+    }
+
+    private void watchLoop() {
+        boolean pending = true;
+        long pendingSince = System.currentTimeMillis();
+        long lastPoll = 0;
+
+        while (watchThread != null) {
+            long deadline = pending ? pendingSince + settleMillis : lastPoll + rescanMillis;
+            long wait = Math.max(0, deadline - System.currentTimeMillis());
+            try {
+                // Wake up regularly so a requested scan doesn't wait for the next event or deadline
+                WatchKey key = watchService.poll(Math.min(wait, WAKE_UP_MILLIS), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    recordEvents(key);
+                    if (!pending) {
+                        pending = true;
+                        pendingSince = System.currentTimeMillis();
+                    }
+                    continue;
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            if (!scanRequested && System.currentTimeMillis() < deadline) {
+                continue;
+            }
+
+            scanRequested = false;
+            heldBack = false;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Poll failed for route {}", routeId, e);
+            }
+            lastPoll = System.currentTimeMillis();
+            pending = heldBack;
+            pendingSince = lastPoll;
+        }
+    }
+
+    private void recordEvents(WatchKey key) {
+        long now = System.currentTimeMillis();
+        for (var event : key.pollEvents()) {
+            if (event.context() instanceof Path path) {
+                String fileName = path.toString();
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    lastEventAt.remove(fileName);
+                    sizeAtLastPoll.remove(fileName);
+                } else {
+                    lastEventAt.put(fileName, now);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void stopWatching() {
+        var thread = watchThread;
+        watchThread = null;
+        if (thread == null) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Failed to close watch service for {}", directory, e);
+        }
+        thread.interrupt();
+        lastEventAt.clear();
+        sizeAtLastPoll.clear();
+    }
+
+    @Override
+    protected void doStop() {
+        stopWatching();
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+}
@@ -0,0 +1,78 @@
+package garrich.demo.temporal.route;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.component.file.FileEndpoint;
+import org.apache.camel.model.RouteDefinition;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the source directory endpoint shared by all file routes, either polling on the default delay or
+ * driven by directory watch events depending on {@code temporal.intake.mode}, and applies the per-route
+ * consumer concurrency settings from {@code temporal.routes.<route-id>}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileIntake {
+
+    private final TemporalProperties temporalProperties;
+    private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+
+    public Endpoint endpoint(CamelContext camelContext, String routeId, String directory) {
+        var endpoint = camelContext.getEndpoint("file:" + directory + "?noop=false&delete=true", FileEndpoint.class);
+        endpoint.setMaxMessagesPerPoll(temporalProperties.getRoute(routeId).getMaxMessagesPerPoll());
+
+        var intake = temporalProperties.getIntake();
+        if (intake.getMode() == TemporalProperties.Intake.Mode.WATCH) {
+            var scheduler = new DirectoryWatchScheduler(routeId, Paths.get(directory), intake.getSettleTime(), intake.getRescanInterval());
+            endpoint.setScheduler(scheduler);
+            endpoint.setFilter(scheduler);
+        }
+        return endpoint;
+    }
+
+    /**
+     * Hands exchanges off from the consumer thread to a bounded pool when the route's parallelism is above one.
+     * The pool runs on virtual threads unless {@code virtual-threads} is disabled; once its queue is full the
+     * consumer thread processes the file itself, which slows down polling instead of dropping work.
+     */
+    public RouteDefinition parallelize(RouteDefinition definition, String routeId) {
+        var route = temporalProperties.getRoute(routeId);
+        if (route.getParallelism() <= 1) {
+            return definition;
+        }
+
+        ThreadFactory threadFactory = route.isVirtualThreads()
+                ? Thread.ofVirtual().name(routeId + "-", 0).factory()
+                : Thread.ofPlatform().name(routeId + "-", 0).factory();
+        var executor = new ThreadPoolExecutor(route.getParallelism(), route.getParallelism(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(route.getParallelQueueSize()),
+                threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        executors.add(executor);
+
+        log.info("Route {} processes up to {} files in parallel ({} threads)", routeId, route.getParallelism(),
+                route.isVirtualThreads() ? "virtual" : "platform");
+        definition.threads().executorService(executor);
+        return definition;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.forEach(ExecutorService::shutdown);
+    }
+}
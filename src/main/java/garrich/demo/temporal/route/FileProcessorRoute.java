@@ -1,6 +1,7 @@
 package garrich.demo.temporal.route;
 
 import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
 import garrich.demo.temporal.workflow.StarterWorkflow;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowOptions;
@@ -16,27 +17,49 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class FileProcessorRoute extends RouteBuilder {
 
+    private static final String ROUTE_ID = "file-processor-route";
+    private static final String WORKFLOW_TYPE = "StarterWorkflow";
+
     private final WorkflowClient workflowClient;
     private final TemporalProperties temporalProperties;
+    private final FileIntake fileIntake;
+    private final AdmissionController admissionController;
+    private final FileProcessingMetrics metrics;
 
     @Override
     public void configure() {
-        from("file:" + temporalProperties.getSourcePath() + "?noop=false&delete=true")
-                .routeId("file-processor-route")
+        var route = temporalProperties.getRoute(ROUTE_ID);
+
+        var definition = from(fileIntake.endpoint(getContext(), ROUTE_ID, temporalProperties.getSourcePath()))
+                .routeId(ROUTE_ID)
                 .log("Processing file: ${header.CamelFileName}")
-                .process(exchange -> {
-                    String filePath = exchange.getIn().getHeader("CamelFileAbsolutePath", String.class);
+                .process(exchange -> metrics.recordPickup(ROUTE_ID, WORKFLOW_TYPE, exchange));
+        fileIntake.parallelize(definition, ROUTE_ID);
 
-                    var options = WorkflowOptions.newBuilder()
-                            .setTaskQueue(temporalProperties.getTaskQueue())
-                            .setWorkflowId("starter-" + UUID.randomUUID())
-                            .build();
+        if (route.isAsyncDispatch()) {
+            definition.process(new AsyncWorkflowProcessor(admissionController.limit(getContext(), ROUTE_ID),
+                    metrics.stage("workflow_start", ROUTE_ID, WORKFLOW_TYPE),
+                    metrics.stage("workflow", ROUTE_ID, WORKFLOW_TYPE),
+                    filePath -> WorkflowClient.execute(newWorkflow()::moveFile, filePath, temporalProperties.getTargetPath())));
+        } else {
+            definition.process(exchange -> {
+                String filePath = exchange.getIn().getHeader("CamelFileAbsolutePath", String.class);
+                var result = metrics.stage("workflow", ROUTE_ID, WORKFLOW_TYPE)
+                        .record(() -> newWorkflow().moveFile(filePath, temporalProperties.getTargetPath()));
+                exchange.getIn().setBody(result);
+            });
+        }
+
+        definition.log("Workflow completed. File moved to: ${body}");
+    }
 
-                    var workflow = workflowClient.newWorkflowStub(StarterWorkflow.class, options);
-                    var result = workflow.moveFile(filePath, temporalProperties.getTargetPath());
+    private StarterWorkflow newWorkflow() {
+        var options = WorkflowOptions.newBuilder()
+                .setTaskQueue(temporalProperties.getTaskQueue())
+                .setDisableEagerExecution(!temporalProperties.getRoute(ROUTE_ID).isEagerStart())
+                .setWorkflowId("starter-" + UUID.randomUUID())
+                .build();
 
-                    exchange.getIn().setBody(result);
-                })
-                .log("Workflow completed. File moved to: ${body}");
+        return workflowClient.newWorkflowStub(StarterWorkflow.class, options);
     }
 }
@@ -0,0 +1,57 @@
+package garrich.demo.temporal.route;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.workflow.BatchWorkflow;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.camel.builder.RouteBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileProcessorRouteBatch extends RouteBuilder {
+
+    private static final String ROUTE_ID = "file-processor-route-batch";
+    private static final String WORKFLOW_TYPE = "BatchWorkflow";
+
+    private final WorkflowClient workflowClient;
+    private final TemporalProperties temporalProperties;
+    private final FileIntake fileIntake;
+    private final AdmissionController admissionController;
+    private final FileProcessingMetrics metrics;
+
+    @Override
+    public void configure() {
+        var route = temporalProperties.getRoute(ROUTE_ID);
+
+        var definition = from(fileIntake.endpoint(getContext(), ROUTE_ID, temporalProperties.getSourcePath5()))
+                .routeId(ROUTE_ID)
+                .log("Processing file: ${header.CamelFileName}")
+                .process(exchange -> metrics.recordPickup(ROUTE_ID, WORKFLOW_TYPE, exchange));
+        fileIntake.parallelize(definition, ROUTE_ID);
+
+        definition
+                .process(new BatchingWorkflowProcessor(route.getBatchSize(), route.getBatchTimeout(),
+                        admissionController.limit(getContext(), ROUTE_ID),
+                        metrics.stage("workflow_start", ROUTE_ID, WORKFLOW_TYPE),
+                        metrics.stage("workflow", ROUTE_ID, WORKFLOW_TYPE),
+                        filePaths -> WorkflowClient.execute(newWorkflow()::moveFiles, filePaths, temporalProperties.getTargetPath())))
+                .log("Batch workflow completed. File moved to: ${body}");
+    }
+
+    private BatchWorkflow newWorkflow() {
+        var options = WorkflowOptions.newBuilder()
+                .setTaskQueue(temporalProperties.getTaskQueue())
+                .setDisableEagerExecution(!temporalProperties.getRoute(ROUTE_ID).isEagerStart())
+                .setWorkflowId("batch-" + UUID.randomUUID())
+                .build();
+
+        return workflowClient.newWorkflowStub(BatchWorkflow.class, options);
+    }
+}
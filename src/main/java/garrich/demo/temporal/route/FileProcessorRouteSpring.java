@@ -1,6 +1,7 @@
 package garrich.demo.temporal.route;
 
 import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
 import garrich.demo.temporal.service.FileProcessingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,17 +13,27 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class FileProcessorRouteSpring extends RouteBuilder {
 
+    private static final String ROUTE_ID = "file-processor-route-spring";
+    private static final String WORKFLOW_TYPE = "FileProcessingService";
+
     private final FileProcessingService fileProcessingService;
     private final TemporalProperties temporalProperties;
+    private final FileIntake fileIntake;
+    private final FileProcessingMetrics metrics;
 
     @Override
     public void configure() {
-        from("file:" + temporalProperties.getSourcePath4() + "?noop=false&delete=true")
-                .routeId("file-processor-route-spring")
+        var definition = from(fileIntake.endpoint(getContext(), ROUTE_ID, temporalProperties.getSourcePath4()))
+                .routeId(ROUTE_ID)
                 .log("Processing file: ${header.CamelFileName}")
+                .process(exchange -> metrics.recordPickup(ROUTE_ID, WORKFLOW_TYPE, exchange));
+        fileIntake.parallelize(definition, ROUTE_ID);
+
+        definition
                 .process(exchange -> {
                     String filePath = exchange.getIn().getHeader("CamelFileAbsolutePath", String.class);
-                    String result = fileProcessingService.processFile(filePath, temporalProperties.getTargetPath());
+                    String result = metrics.stage("process", ROUTE_ID, WORKFLOW_TYPE)
+                            .record(() -> fileProcessingService.processFile(filePath, temporalProperties.getTargetPath()));
                     exchange.getIn().setBody(result);
                 })
                 .log("Processing completed. File moved to: ${body}");
@@ -0,0 +1,158 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of audit records drained by one writer thread. The writer inserts everything queued
+ * since its last flush as one JDBC batch in one transaction, so concurrent producers share a commit instead
+ * of contending for the SQLite lock. Sized by the {@code temporal.audit} queue and batch settings. A failed
+ * batch (e.g. {@code SQLITE_BUSY}) is retried {@code flush-retries} times with doubling backoff, then saved
+ * one record per transaction; only records that fail on their own are dropped, and they are counted.
+ */
+@Slf4j
+class AuditBatchWriter {
+
+    static final String INSERT_SQL = "INSERT INTO file_processing_records "
+            + "(original_path, new_path, checksum, checksum_algorithm, sha512, sha1, md5, crc32c, operation, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final String name;
+    private final TemporalProperties.Audit audit;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer flushTimer;
+    private final BlockingQueue<FileProcessingRecord> queue;
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    AuditBatchWriter(String name, TemporalProperties.Audit audit, JdbcTemplate jdbcTemplate,
+                     TransactionTemplate transactionTemplate, Timer flushTimer) {
+        this.name = name;
+        this.audit = audit;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushTimer = flushTimer;
+        this.queue = new ArrayBlockingQueue<>(audit.getQueueCapacity());
+    }
+
+    void start() {
+        running = true;
+        writerThread = Thread.ofPlatform().name(name).start(this::drainLoop);
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.join();
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    void enqueue(FileProcessingRecord record) {
+        try {
+            if (!queue.offer(record, audit.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Audit queue is full, record not accepted: " + record.getOperation()
+                        + " for " + record.getOriginalPath());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while queueing audit record", e);
+        }
+    }
+
+    static void batchInsert(JdbcTemplate jdbcTemplate, List<FileProcessingRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.getOriginalPath());
+            ps.setString(2, record.getNewPath());
+            ps.setString(3, record.getChecksum());
+            ps.setString(4, record.getChecksumAlgorithm());
+            ps.setString(5, record.getSha512());
+            ps.setString(6, record.getSha1());
+            ps.setString(7, record.getMd5());
+            ps.setString(8, record.getCrc32c());
+            ps.setString(9, record.getOperation());
+            ps.setTimestamp(10, Timestamp.valueOf(record.getTimestamp()));
+        });
+    }
+
+    private void drainLoop() {
+        List<FileProcessingRecord> batch = new ArrayList<>(audit.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(audit.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, audit.getBatchSize() - 1);
+                flushWithRetries(batch);
+            } catch (InterruptedException e) {
+                // keep draining what is already queued before the thread exits
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushWithRetries(List<FileProcessingRecord> batch) {
+        long backoff = audit.getFlushRetryBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= audit.getFlushRetries()) {
+                    log.warn("{} failed to write a batch of {} audit records after {} retries, saving them one by one: {}",
+                            name, batch.size(), attempt, e.getMessage());
+                    break;
+                }
+                log.debug("{} failed to write {} audit records, retrying in {} ms: {}", name, batch.size(), backoff, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                // shutting down: skip the remaining retries but keep the records
+                running = false;
+                break;
+            }
+            backoff *= 2;
+        }
+
+        for (FileProcessingRecord record : batch) {
+            try {
+                flush(List.of(record));
+            } catch (RuntimeException e) {
+                droppedRecords.incrementAndGet();
+                log.error("{} dropped audit record {} for {}", name, record.getOperation(), record.getOriginalPath(), e);
+            }
+        }
+    }
+
+    private void flush(List<FileProcessingRecord> batch) {
+        flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> batchInsert(jdbcTemplate, batch)));
+        log.debug("{} flushed {} audit records", name, batch.size());
+    }
+}
@@ -0,0 +1,312 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import garrich.demo.temporal.repository.FileProcessingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit journal in memory-mapped segment files of {@code segment-size} bytes. Each record is
+ * {@code [int length][int crc32c][payload]}. A zero length ends a segment, and so does a record whose
+ * checksum doesn't match. When only zeros follow that record it was the last write, torn by a crash; when more
+ * data follows, the segment is corrupt and {@link Segment#corrupt()} is set so the rest isn't silently dropped.
+ * The active segment ends in {@code .journal}; full segments, and one left over from a crash, are renamed to
+ * {@code .sealed} for the {@link AuditJournalExporter}.
+ * With {@code fsync} ALWAYS every record is forced to disk, with INTERVAL every {@code fsync-interval}, and
+ * with NONE only when a segment is sealed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "temporal.audit", name = "backend", havingValue = "journal")
+public class AuditJournal implements AuditSink {
+
+    static final String ACTIVE_SUFFIX = ".journal";
+    static final String SEALED_SUFFIX = ".sealed";
+    static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final String PREFIX = "audit-";
+    private static final int HEADER_SIZE = 8;
+    private static final int NULL_LENGTH = -1;
+
+    private final TemporalProperties.Journal journal;
+    private final FileProcessingRepository repository;
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long sequence;
+    private Path activeSegment;
+    private MappedByteBuffer buffer;
+    private int syncedPosition;
+    private volatile int unsyncedRecords;
+    private ScheduledExecutorService fsyncScheduler;
+    private boolean stopped;
+
+    /**
+     * The readable records of a segment, and whether non-zero data follows the record where reading stopped.
+     */
+    public record Segment(List<FileProcessingRecord> records, boolean corrupt) {
+    }
+
+    public AuditJournal(TemporalProperties temporalProperties, FileProcessingRepository repository) {
+        this.journal = temporalProperties.getAudit().getJournal();
+        this.repository = repository;
+        this.directory = Paths.get(journal.getDirectory());
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            for (Path leftover : segments(directory, ACTIVE_SUFFIX)) {
+                log.info("Sealing audit journal segment left over from the previous run: {}", leftover);
+                seal(leftover);
+            }
+            openSegment();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open audit journal: " + e.getMessage(), e);
+        }
+
+        if (journal.getFsync() == TemporalProperties.Journal.Fsync.INTERVAL) {
+            fsyncScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("audit-journal-fsync").daemon().factory());
+            long interval = journal.getFsyncInterval().toMillis();
+            fsyncScheduler.scheduleWithFixedDelay(this::forceSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        log.info("Audit journal started in {} (segment size: {}, fsync: {})", directory, journal.getSegmentSize(), journal.getFsync());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdownNow();
+        }
+
+        lock.lock();
+        try {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            force();
+            seal(activeSegment);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Audit journal stopped, last segment sealed");
+    }
+
+    @Override
+    public void record(FileProcessingRecord record) {
+        byte[] payload = encode(record);
+        var crc = new CRC32C();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (stopped) {
+                throw new IllegalStateException("Audit journal is stopped, record of " + record.getOriginalPath() + " not written");
+            }
+            if (buffer.remaining() < HEADER_SIZE + payload.length) {
+                rotate(payload.length);
+            }
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            unsyncedRecords++;
+            if (journal.getFsync() == TemporalProperties.Journal.Fsync.ALWAYS) {
+                force();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append audit record: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return unsyncedRecords;
+    }
+
+    /**
+     * Only sees records whose segment has already been exported.
+     */
+    @Override
+    public Optional<FileProcessingRecord> findLatest(String checksum, String operation) {
+        return repository.findFirstByChecksumAndOperationOrderByIdDesc(checksum, operation);
+    }
+
+    /**
+     * Records of one segment up to its end marker or first record that fails its checksum.
+     */
+    public static Segment read(Path segment) {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<FileProcessingRecord> records = new ArrayList<>();
+            while (data.remaining() >= HEADER_SIZE) {
+                int offset = data.position();
+                int length = data.getInt();
+                int crc = data.getInt();
+                if (length == 0) {
+                    return new Segment(records, !isZero(data, offset));
+                }
+                if (length < 0 || length > data.remaining()) {
+                    log.warn("Invalid audit record length {} at offset {} of {}", length, offset, segment);
+                    return new Segment(records, true);
+                }
+
+                var payload = data.slice(data.position(), length);
+                var check = new CRC32C();
+                check.update(payload.duplicate());
+                if ((int) check.getValue() != crc) {
+                    // A torn last write leaves zeros behind it; anything else means later records are unreadable
+                    boolean corrupt = !isZero(data, data.position() + length);
+                    log.warn("{} audit record at offset {} of {}, ignoring the rest of the segment",
+                            corrupt ? "Corrupt" : "Torn", offset, segment);
+                    return new Segment(records, corrupt);
+                }
+                records.add(decode(payload));
+                data.position(data.position() + length);
+            }
+            return new Segment(records, false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read audit journal segment: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isZero(ByteBuffer data, int from) {
+        for (int i = from; i < data.limit(); i++) {
+            if (data.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static List<Path> segments(Path directory, String suffix) throws IOException {
+        try (var paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void rotate(int payloadLength) throws IOException {
+        if (HEADER_SIZE + payloadLength > journal.getSegmentSize()) {
+            throw new RuntimeException("Audit record of " + payloadLength + " bytes exceeds the journal segment size");
+        }
+        force();
+        seal(activeSegment);
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        // Time-based and zero-padded, so names sort in write order and don't repeat after exported segments are deleted
+        sequence = Math.max(sequence + 1, System.currentTimeMillis());
+        activeSegment = directory.resolve(PREFIX + String.format("%020d", sequence) + ACTIVE_SUFFIX);
+        try (var channel = FileChannel.open(activeSegment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, journal.getSegmentSize());
+        }
+        syncedPosition = 0;
+    }
+
+    private static void seal(Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        var sealed = segment.resolveSibling(name.substring(0, name.length() - ACTIVE_SUFFIX.length()) + SEALED_SUFFIX);
+        Files.move(segment, sealed, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void force() {
+        int position = buffer.position();
+        if (position > syncedPosition) {
+            buffer.force(syncedPosition, position - syncedPosition);
+            syncedPosition = position;
+        }
+        unsyncedRecords = 0;
+    }
+
+    private void forceSafely() {
+        lock.lock();
+        try {
+            force();
+        } catch (RuntimeException e) {
+            log.error("Failed to force audit journal to disk: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encode(FileProcessingRecord record) {
+        var fields = Arrays.asList(record.getOriginalPath(), record.getNewPath(), record.getChecksum(),
+                record.getChecksumAlgorithm(), record.getSha512(), record.getSha1(), record.getMd5(),
+                record.getCrc32c(), record.getOperation());
+        var encoded = new byte[fields.size()][];
+        int size = Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < fields.size(); i++) {
+            encoded[i] = fields.get(i) == null ? null : fields.get(i).getBytes(StandardCharsets.UTF_8);
+            size += Integer.BYTES + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+
+        var timestamp = record.getTimestamp();
+        var payload = ByteBuffer.allocate(size)
+                .putLong(timestamp.toEpochSecond(ZoneOffset.UTC))
+                .putInt(timestamp.getNano());
+        for (byte[] field : encoded) {
+            if (field == null) {
+                payload.putInt(NULL_LENGTH);
+            } else {
+                payload.putInt(field.length).put(field);
+            }
+        }
+        return payload.array();
+    }
+
+    private static FileProcessingRecord decode(ByteBuffer payload) {
+        var record = new FileProcessingRecord();
+        record.setTimestamp(LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC));
+        record.setOriginalPath(readString(payload));
+        record.setNewPath(readString(payload));
+        record.setChecksum(readString(payload));
+        record.setChecksumAlgorithm(readString(payload));
+        record.setSha512(readString(payload));
+        record.setSha1(readString(payload));
+        record.setMd5(readString(payload));
+        record.setCrc32c(readString(payload));
+        record.setOperation(readString(payload));
+        return record;
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        var bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads sealed {@link AuditJournal} segments into {@code file_processing_records} off the processing path,
+ * one transaction per segment, and deletes each segment afterwards. The segment name is recorded in
+ * {@code audit_journal_exports} in the same transaction, so a segment whose delete was lost to a crash is not
+ * loaded twice. A corrupt segment has its readable records loaded the same way but is renamed to
+ * {@code .corrupt} instead of deleted, keeping the unreadable rest for manual recovery. It runs with the
+ * {@code journal} backend unless {@code temporal.audit.journal.export-enabled} says otherwise; setting that
+ * explicitly also runs it under another backend, so the export can be left to a separate instance pointed at
+ * the same journal directory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditJournalExporter {
+
+    private static final String CREATE_EXPORTS_SQL = "CREATE TABLE IF NOT EXISTS audit_journal_exports "
+            + "(segment TEXT PRIMARY KEY, records INTEGER, exported_at TIMESTAMP)";
+    private static final String COUNT_EXPORTS_SQL = "SELECT COUNT(*) FROM audit_journal_exports WHERE segment = ?";
+    private static final String INSERT_EXPORT_SQL = "INSERT INTO audit_journal_exports (segment, records, exported_at) VALUES (?, ?, ?)";
+
+    private final TemporalProperties temporalProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        var audit = temporalProperties.getAudit();
+        var journal = audit.getJournal();
+        boolean enabled = journal.getExportEnabled() != null
+                ? journal.getExportEnabled()
+                : audit.getBackend() == TemporalProperties.Audit.Backend.JOURNAL;
+        if (!enabled) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("audit-journal-export").daemon().factory());
+        long interval = journal.getExportInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::exportSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Exports every sealed segment and returns the number of records loaded.
+     */
+    public int export() {
+        Path directory = Paths.get(temporalProperties.getAudit().getJournal().getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        try {
+            var segments = AuditJournal.segments(directory, AuditJournal.SEALED_SUFFIX);
+            if (segments.isEmpty()) {
+                return 0;
+            }
+
+            jdbcTemplate.execute(CREATE_EXPORTS_SQL);
+            int exported = 0;
+            for (Path segment : segments) {
+                exported += exportSegment(segment);
+            }
+            return exported;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to export audit journal: " + e.getMessage(), e);
+        }
+    }
+
+    private int exportSegment(Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        var contents = AuditJournal.read(segment);
+        var records = contents.records();
+
+        Boolean loaded = transactionTemplate.execute(status -> {
+            Integer previous = jdbcTemplate.queryForObject(COUNT_EXPORTS_SQL, Integer.class, name);
+            if (previous != null && previous > 0) {
+                return false;
+            }
+            if (!records.isEmpty()) {
+                AuditBatchWriter.batchInsert(jdbcTemplate, records);
+            }
+            jdbcTemplate.update(INSERT_EXPORT_SQL, name, records.size(), Timestamp.valueOf(LocalDateTime.now()));
+            return true;
+        });
+        if (contents.corrupt()) {
+            var quarantined = segment.resolveSibling(name.substring(0, name.length() - AuditJournal.SEALED_SUFFIX.length())
+                    + AuditJournal.CORRUPT_SUFFIX);
+            Files.move(segment, quarantined, StandardCopyOption.ATOMIC_MOVE);
+            log.error("Audit journal segment {} is corrupt after {} records, moved to {} for manual recovery",
+                    name, records.size(), quarantined.getFileName());
+        } else {
+            Files.delete(segment);
+        }
+
+        if (!Boolean.TRUE.equals(loaded)) {
+            log.info("Skipped audit journal segment {}, it was already exported", name);
+            return 0;
+        }
+        log.info("Exported {} audit records from {}", records.size(), name);
+        return records.size();
+    }
+
+    private void exportSafely() {
+        try {
+            export();
+        } catch (RuntimeException e) {
+            log.error("Failed to export audit journal: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.entity.FileProcessingRecord;
+
+import java.util.Optional;
+
+/**
+ * Destination of the audit records written while processing a file. {@code temporal.audit.backend} selects
+ * the implementation: {@link AuditWriter} (JPA/JDBC, the default), {@link AuditJournal} or {@link ShardedAuditStore}.
+ */
+public interface AuditSink {
+
+    void record(FileProcessingRecord record);
+
+    /**
+     * Records accepted but not yet durably written, for sinks that buffer.
+     */
+    int getQueueDepth();
+
+    /**
+     * Records that were accepted but could not be written, for sinks that write in the background.
+     */
+    default long getDroppedRecords() {
+        return 0;
+    }
+
+    /**
+     * Most recent record with the given checksum and operation, used by deduplication lookups.
+     */
+    Optional<FileProcessingRecord> findLatest(String checksum, String operation);
+}
@@ -0,0 +1,83 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import garrich.demo.temporal.repository.FileProcessingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Persists audit records either synchronously through the JPA repository or, with
+ * {@code temporal.audit.write-behind} enabled, through an {@link AuditBatchWriter} that inserts them
+ * in JDBC batches from a single writer thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "temporal.audit", name = "backend", havingValue = "jpa", matchIfMissing = true)
+public class AuditWriter implements AuditSink {
+
+    private final TemporalProperties temporalProperties;
+    private final FileProcessingRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileProcessingMetrics metrics;
+
+    private AuditBatchWriter batchWriter;
+
+    @PostConstruct
+    public void start() {
+        var audit = temporalProperties.getAudit();
+        if (!audit.isWriteBehind()) {
+            return;
+        }
+
+        batchWriter = new AuditBatchWriter("audit-writer", audit, jdbcTemplate, transactionTemplate,
+                metrics.stage("persist_flush", FileProcessingMetrics.NONE, FileProcessingMetrics.NONE));
+        batchWriter.start();
+        log.info("Write-behind audit writer started (capacity: {}, batch size: {})", audit.getQueueCapacity(), audit.getBatchSize());
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return batchWriter == null ? 0 : batchWriter.getQueueDepth();
+    }
+
+    @Override
+    public long getDroppedRecords() {
+        return batchWriter == null ? 0 : batchWriter.getDroppedRecords();
+    }
+
+    @Override
+    public void record(FileProcessingRecord record) {
+        if (batchWriter == null) {
+            repository.save(record);
+            return;
+        }
+        batchWriter.enqueue(record);
+    }
+
+    @Override
+    public Optional<FileProcessingRecord> findLatest(String checksum, String operation) {
+        return repository.findFirstByChecksumAndOperationOrderByIdDesc(checksum, operation);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (batchWriter == null) {
+            return;
+        }
+
+        batchWriter.stop();
+        log.info("Write-behind audit writer stopped, queue flushed");
+    }
+}
@@ -0,0 +1,256 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.file.Checksum;
+import garrich.demo.temporal.file.FileHashing;
+import garrich.demo.temporal.file.FileTransfer;
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.file.MultiDigest;
+import garrich.demo.temporal.file.ResumableHashing;
+import garrich.demo.temporal.file.TreeHashing;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.client.ActivityCompletionException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Picks the checksum scheme for a file. With {@code temporal.hashing.tree-enabled}, files of at least
+ * {@code tree-threshold} bytes get a {@link TreeHashing} digest computed on a dedicated fork-join pool;
+ * everything else gets a plain streaming SHA-256.
+ */
+@Slf4j
+@Component
+public class ChecksumCalculator {
+
+    private final TemporalProperties.Hashing hashing;
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService heartbeats =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("checksum-heartbeat").daemon().factory());
+
+    public ChecksumCalculator(TemporalProperties temporalProperties) {
+        this.hashing = temporalProperties.getHashing();
+        int parallelism = hashing.getTreeParallelism() > 0
+                ? hashing.getTreeParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = hashing.isTreeEnabled() ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Heartbeats of one checksum activity. The latest checkpoint (at first the one to resume from) is
+     * heartbeated every third of {@code checksum-heartbeat-timeout} until closed, so the tree and plain hashes,
+     * which have no checkpoints of their own, don't hit the heartbeat timeout either. A resumable hash reports
+     * new checkpoints through {@link #checkpoint}. Once a heartbeat is refused, {@link #ensureActive} throws,
+     * and every hash checks it between chunks so an abandoned activity stops reading the file.
+     */
+    public static final class Progress implements AutoCloseable {
+
+        private final Optional<ResumableHashing.Checkpoint> resumeFrom;
+        private final Consumer<ResumableHashing.Checkpoint> heartbeat;
+        private final AtomicReference<ResumableHashing.Checkpoint> latest;
+        private final ScheduledFuture<?> ticker;
+        private volatile ActivityCompletionException abandonedBy;
+
+        private Progress(Optional<ResumableHashing.Checkpoint> resumeFrom, Consumer<ResumableHashing.Checkpoint> heartbeat,
+                         ScheduledExecutorService scheduler, long intervalMillis) {
+            this.resumeFrom = resumeFrom;
+            this.heartbeat = heartbeat;
+            this.latest = new AtomicReference<>(resumeFrom.orElse(null));
+            // The first tick waits an interval, so it can't run before the field is assigned
+            this.ticker = scheduler.scheduleAtFixedRate(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        public Optional<ResumableHashing.Checkpoint> resumeFrom() {
+            return resumeFrom;
+        }
+
+        public void checkpoint(ResumableHashing.Checkpoint checkpoint) {
+            latest.set(checkpoint);
+            heartbeat.accept(checkpoint);
+        }
+
+        /**
+         * Whether a heartbeat was refused because the activity was cancelled, timed out or already completed.
+         */
+        public boolean isAbandoned() {
+            return abandonedBy != null;
+        }
+
+        /**
+         * Throws the refused heartbeat's exception once the activity was abandoned.
+         */
+        public void ensureActive() {
+            var abandoned = abandonedBy;
+            if (abandoned != null) {
+                throw abandoned;
+            }
+        }
+
+        private void tick() {
+            if (abandonedBy != null) {
+                return;
+            }
+
+            try {
+                heartbeat.accept(latest.get());
+            } catch (ActivityCompletionException e) {
+                abandonedBy = e;
+                ticker.cancel(false);
+            } catch (RuntimeException e) {
+                log.warn("Checksum heartbeat failed: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            ticker.cancel(false);
+        }
+    }
+
+    public Checksum checksum(Path path) {
+        var progress = activityProgress();
+        try {
+            return checksum(path, progress);
+        } finally {
+            progress.ifPresent(Progress::close);
+        }
+    }
+
+    public Checksum checksum(Path path, Optional<Progress> progress) {
+        if (useTree(size(path))) {
+            return new Checksum(TreeHashing.algorithm(hashing.getTreeChunkSize()),
+                    TreeHashing.treeSha256Hex(path, hashing.getTreeChunkSize(), pool, cancellationCheck(progress)));
+        }
+        return new Checksum(FileHashing.ALGORITHM, sha256Hex(path, progress));
+    }
+
+    /**
+     * Plain SHA-256 with the JDK digest. With {@code resumable} enabled, files of at least
+     * {@code resumable-threshold} bytes hashed inside a remote activity use {@link ResumableHashing} instead:
+     * progress is heartbeated with the intermediate digest state, and a retry continues from the last heartbeat
+     * instead of from byte zero. That hash is several times slower, so it only pays off where retries of very
+     * large files are likely. Local activities can't heartbeat and always start over.
+     */
+    public String sha256Hex(Path path) {
+        var progress = activityProgress();
+        try {
+            return sha256Hex(path, progress);
+        } finally {
+            progress.ifPresent(Progress::close);
+        }
+    }
+
+    public String sha256Hex(Path path, Optional<Progress> progress) {
+        if (!hashing.isResumable() || progress.isEmpty() || size(path) < hashing.getResumableThreshold()) {
+            return FileHashing.sha256Hex(path, cancellationCheck(progress));
+        }
+
+        var resumeFrom = progress.get().resumeFrom();
+        resumeFrom.ifPresent(resumed -> log.info("Resuming SHA-256 of {} at byte {}", path, resumed.offset()));
+        return ResumableHashing.sha256Hex(path, resumeFrom, progress.get()::checkpoint, progress.get()::ensureActive);
+    }
+
+    public Map<String, String> digestsHex(Path path, Collection<String> algorithms, Optional<Progress> progress) {
+        return FileHashing.digestsHex(path, algorithms, cancellationCheck(progress));
+    }
+
+    private static Runnable cancellationCheck(Optional<Progress> progress) {
+        return progress.<Runnable>map(p -> p::ensureActive).orElse(FileHashing.NO_CANCELLATION);
+    }
+
+    /**
+     * Heartbeats for the current thread's activity, or empty outside of a remote activity. The caller closes it.
+     */
+    public Optional<Progress> activityProgress() {
+        try {
+            var context = Activity.getExecutionContext();
+            return context.getInfo().isLocal()
+                    ? Optional.empty()
+                    : Optional.of(progress(context, context::heartbeat));
+        } catch (IllegalStateException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Progress progress(ActivityExecutionContext context, Consumer<ResumableHashing.Checkpoint> heartbeat) {
+        long interval = Math.max(1, hashing.getChecksumHeartbeatTimeout().toMillis() / 3);
+        return new Progress(context.getHeartbeatDetails(ResumableHashing.Checkpoint.class), heartbeat, heartbeats, interval);
+    }
+
+    /**
+     * Moves the file and checksums it. Below the tree threshold this is {@link FileTransfer#moveAndHash},
+     * which reads the file only once; above it the destination is tree-hashed after the move.
+     */
+    public MovedFile moveAndChecksum(Path source, Path destination) {
+        if (!useTree(size(source))) {
+            return FileTransfer.moveAndHash(source, destination);
+        }
+
+        FileTransfer.move(source, destination);
+        var checksum = checksum(destination);
+        return new MovedFile(destination.toString(), checksum.value(), checksum.algorithm());
+    }
+
+    private boolean useTree(long size) {
+        return pool != null && size >= hashing.getTreeThreshold();
+    }
+
+    private static long size(Path path) {
+        if (!Files.exists(path)) {
+            throw new RuntimeException("File does not exist: " + path);
+        }
+
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file size: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean hasExtraDigests() {
+        return !hashing.getExtraDigests().isEmpty();
+    }
+
+    /**
+     * Moves the file and computes SHA-256 plus the configured {@code extra-digests} in the same single read.
+     * The tree hash is skipped here since the extra digests need a full sequential pass anyway.
+     */
+    public Map<String, String> moveAndDigest(Path source, Path destination) {
+        return FileTransfer.moveAndDigest(source, destination, digestAlgorithms());
+    }
+
+    /**
+     * SHA-256 followed by the configured {@code extra-digests}.
+     */
+    public List<String> digestAlgorithms() {
+        List<String> algorithms = new ArrayList<>();
+        algorithms.add(MultiDigest.SHA_256);
+        algorithms.addAll(hashing.getExtraDigests());
+        return algorithms;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU index of recently stored SHA-256 values to their path in the target directory.
+ * Lookups that miss the in-memory index fall back to the configured {@link AuditSink}.
+ */
+@Slf4j
+@Component
+public class ChecksumIndex {
+
+    private final AuditSink auditSink;
+    private final Map<String, String> recent;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ChecksumIndex(AuditSink auditSink, TemporalProperties temporalProperties) {
+        this.auditSink = auditSink;
+        int cacheSize = temporalProperties.getDedup().getCacheSize();
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public Optional<String> findStoredPath(String checksum) {
+        String storedPath;
+        synchronized (recent) {
+            storedPath = recent.get(checksum);
+        }
+
+        if (storedPath == null) {
+            storedPath = auditSink.findLatest(checksum, "CHECKSUM_CALCULATED")
+                    .map(FileProcessingRecord::getNewPath)
+                    .orElse(null);
+        }
+
+        if (storedPath == null || !Files.exists(Paths.get(storedPath))) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        register(checksum, storedPath);
+        hits.incrementAndGet();
+        return Optional.of(storedPath);
+    }
+
+    public void register(String checksum, String storedPath) {
+        synchronized (recent) {
+            recent.put(checksum, storedPath);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+}
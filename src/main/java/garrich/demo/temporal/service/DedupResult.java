@@ -0,0 +1,16 @@
+package garrich.demo.temporal.service;
+
+import java.util.Map;
+
+/**
+ * Where a file was stored and its digests: SHA-256 plus whatever else {@link FileDeduplicator#store} was asked
+ * for, keyed by algorithm.
+ */
+public record DedupResult(String path, String sha256, Decision decision, Map<String, String> digests) {
+
+    public enum Decision {
+        STORED,
+        DUPLICATE_LINKED,
+        DUPLICATE_SKIPPED
+    }
+}
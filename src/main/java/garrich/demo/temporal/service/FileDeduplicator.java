@@ -0,0 +1,74 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.file.FileTransfer;
+import garrich.demo.temporal.file.MultiDigest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Content-addressed store step: moves the incoming file into the target directory, hashing it in the same
+ * read, and when the same content was already stored there replaces the new copy with a hard link to the
+ * stored file ({@code LINK}) or drops it and reports the stored path ({@code SKIP}). Stored files are found
+ * through {@link ChecksumIndex}, which only survives a restart for files whose {@code CHECKSUM_CALCULATED}
+ * audit record has reached the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileDeduplicator {
+
+    private final TemporalProperties temporalProperties;
+    private final ChecksumIndex checksumIndex;
+
+    public boolean isEnabled() {
+        return temporalProperties.getDedup().isEnabled();
+    }
+
+    public DedupResult store(Path source, Path destination) {
+        return store(source, destination, List.of(MultiDigest.SHA_256));
+    }
+
+    /**
+     * Same as {@link #store(Path, Path)}, computing the other {@link MultiDigest} algorithms in the same read
+     * as the SHA-256 the store is keyed by.
+     */
+    public DedupResult store(Path source, Path destination, Collection<String> algorithms) {
+        var digests = FileTransfer.moveAndDigest(source, destination, algorithms);
+        String checksum = digests.get(MultiDigest.SHA_256);
+
+        var storedPath = checksumIndex.findStoredPath(checksum)
+                .filter(path -> !path.equals(destination.toString()));
+        if (storedPath.isEmpty()) {
+            checksumIndex.register(checksum, destination.toString());
+            return new DedupResult(destination.toString(), checksum, DedupResult.Decision.STORED, digests);
+        }
+
+        try {
+            if (temporalProperties.getDedup().getMode() == TemporalProperties.Dedup.Mode.SKIP) {
+                Files.delete(destination);
+                log.info("Skipped duplicate {} of {} [SHA-256: {}]", source, storedPath.get(), checksum);
+                return new DedupResult(storedPath.get(), checksum, DedupResult.Decision.DUPLICATE_SKIPPED, digests);
+            }
+
+            // Link next to the copy and rename over it, so the destination never goes missing
+            var link = destination.resolveSibling(destination.getFileName() + ".link");
+            Files.deleteIfExists(link);
+            Files.createLink(link, Paths.get(storedPath.get()));
+            Files.move(link, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Linked duplicate {} to {} [SHA-256: {}]", destination, storedPath.get(), checksum);
+            return new DedupResult(destination.toString(), checksum, DedupResult.Decision.DUPLICATE_LINKED, digests);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,104 +1,91 @@
 package garrich.demo.temporal.service;
 
 import garrich.demo.temporal.entity.FileProcessingRecord;
-import garrich.demo.temporal.repository.FileProcessingRepository;
+import garrich.demo.temporal.file.FileHashing;
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.file.MultiDigest;
+import garrich.demo.temporal.file.TimestampedFileNames;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HexFormat;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileProcessingService {
 
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssnnnnnnnn");
+    private static final String WORKFLOW_TYPE = "FileProcessingService";
 
-    private final FileProcessingRepository repository;
+    private final AuditSink auditSink;
+    private final FileDeduplicator fileDeduplicator;
+    private final ChecksumCalculator checksumCalculator;
+    private final FileProcessingMetrics metrics;
 
     public String processFile(String filePath, String targetPath) {
         log.info("Processing file: {}", filePath);
 
         // Record 1: FILE_RECEIVED
-        repository.save(new FileProcessingRecord(filePath, null, null, "FILE_RECEIVED"));
+        record(new FileProcessingRecord(filePath, null, null, "FILE_RECEIVED"));
         log.info("Recorded FILE_RECEIVED for: {}", filePath);
 
-        // Move file
-        String movedFilePath = moveFileToTarget(filePath, targetPath);
-
-        // Record 2: FILE_MOVED
-        repository.save(new FileProcessingRecord(filePath, movedFilePath, null, "FILE_MOVED"));
-        log.info("Recorded FILE_MOVED: {} -> {}", filePath, movedFilePath);
-
-        // Calculate checksum
-        String checksum = calculateSha256(movedFilePath);
-
-        // Record 3: CHECKSUM_CALCULATED
-        repository.save(new FileProcessingRecord(filePath, movedFilePath, checksum, "CHECKSUM_CALCULATED"));
-        log.info("Recorded CHECKSUM_CALCULATED for: {} [SHA-256: {}]", movedFilePath, checksum);
-
-        return movedFilePath + " [SHA-256: " + checksum + "]";
-    }
-
-    private String moveFileToTarget(String filePath, String targetPath) {
-        Path source = Paths.get(filePath);
-
-        if (!Files.exists(source)) {
-            throw new RuntimeException("Source file does not exist: " + filePath);
+        // Move file and calculate checksum (plus any extra digests) in a single read, or store it deduplicated
+        String movedFilePath;
+        String checksum;
+        String checksumAlgorithm = FileHashing.ALGORITHM;
+        Map<String, String> extraDigests = Map.of();
+        String moveOperation = "FILE_MOVED";
+        Path destination = resolveDestination(filePath, targetPath);
+        var storeTimer = metrics.stage("move_checksum", FileProcessingMetrics.NONE, WORKFLOW_TYPE);
+        if (fileDeduplicator.isEnabled()) {
+            DedupResult stored = storeTimer.record(() ->
+                    fileDeduplicator.store(Paths.get(filePath), destination, checksumCalculator.digestAlgorithms()));
+            movedFilePath = stored.path();
+            checksum = stored.sha256();
+            extraDigests = stored.digests();
+            if (stored.decision() != DedupResult.Decision.STORED) {
+                moveOperation = stored.decision().name();
+            }
+        } else if (checksumCalculator.hasExtraDigests()) {
+            Map<String, String> digests = storeTimer.record(() -> checksumCalculator.moveAndDigest(Paths.get(filePath), destination));
+            movedFilePath = destination.toString();
+            checksum = digests.get(MultiDigest.SHA_256);
+            extraDigests = digests;
+        } else {
+            MovedFile movedFile = storeTimer.record(() -> checksumCalculator.moveAndChecksum(Paths.get(filePath), destination));
+            movedFilePath = movedFile.path();
+            checksum = movedFile.checksum();
+            checksumAlgorithm = movedFile.algorithm();
         }
 
-        String fileName = source.getFileName().toString();
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String newFileName = addTimestampToFileName(fileName, timestamp);
+        // Record 2: FILE_MOVED (or DUPLICATE_LINKED / DUPLICATE_SKIPPED)
+        record(new FileProcessingRecord(filePath, movedFilePath, null, moveOperation));
+        log.info("Recorded {}: {} -> {}", moveOperation, filePath, movedFilePath);
 
-        Path targetDir = Paths.get(targetPath);
-        Path destination = targetDir.resolve(newFileName);
-
-        try {
-            Files.createDirectories(targetDir);
-            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
-            return destination.toString();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to move file: " + e.getMessage(), e);
-        }
+        // Record 3: CHECKSUM_CALCULATED
+        var checksumRecord = new FileProcessingRecord(filePath, movedFilePath, checksum, checksumAlgorithm, "CHECKSUM_CALCULATED");
+        checksumRecord.setSha512(extraDigests.get(MultiDigest.SHA_512));
+        checksumRecord.setSha1(extraDigests.get(MultiDigest.SHA_1));
+        checksumRecord.setMd5(extraDigests.get(MultiDigest.MD5));
+        checksumRecord.setCrc32c(extraDigests.get(MultiDigest.CRC32C));
+        record(checksumRecord);
+        log.info("Recorded CHECKSUM_CALCULATED for: {} [{}: {}]", movedFilePath, checksumAlgorithm, checksum);
+
+        return new MovedFile(movedFilePath, checksum, checksumAlgorithm).toString();
     }
 
-    private String addTimestampToFileName(String fileName, String timestamp) {
-        int dotIndex = fileName.lastIndexOf('.');
-        if (dotIndex > 0) {
-            String name = fileName.substring(0, dotIndex);
-            String extension = fileName.substring(dotIndex);
-            return name + "_" + timestamp + extension;
-        }
-        return fileName + "_" + timestamp;
+    private void record(FileProcessingRecord record) {
+        metrics.stage("persist", FileProcessingMetrics.NONE, WORKFLOW_TYPE).record(() -> auditSink.record(record));
     }
 
-    private String calculateSha256(String filePath) {
-        Path path = Paths.get(filePath);
+    private Path resolveDestination(String filePath, String targetPath) {
+        String fileName = Paths.get(filePath).getFileName().toString();
+        String newFileName = TimestampedFileNames.withTimestamp(fileName);
 
-        if (!Files.exists(path)) {
-            throw new RuntimeException("File does not exist: " + filePath);
-        }
-
-        try {
-            byte[] fileBytes = Files.readAllBytes(path);
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(fileBytes);
-            return HexFormat.of().formatHex(hashBytes);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read file: " + e.getMessage(), e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+        return Paths.get(targetPath).resolve(newFileName);
     }
 }
@@ -0,0 +1,178 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Audit records partitioned by the hash of {@code originalPath} across {@code shards.count} SQLite files, so
+ * all records of one file land in the same shard. The count is written to the shard directory on first start
+ * and checked on every later one, since a different count would place paths in other shards. Each shard has
+ * its own write connection and {@link AuditBatchWriter} thread, so writers don't queue on a single database
+ * lock. Reads use a small pool of separate connections, which WAL mode serves alongside the writer. Checksum
+ * lookups fan out to every shard in parallel and return the newest match. Record ids are only unique within
+ * a shard.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "temporal.audit", name = "backend", havingValue = "sharded")
+public class ShardedAuditStore implements AuditSink {
+
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS file_processing_records ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, original_path TEXT, new_path TEXT, checksum TEXT, "
+            + "checksum_algorithm TEXT, sha512 TEXT, sha1 TEXT, md5 TEXT, crc32c TEXT, operation TEXT, timestamp TIMESTAMP)";
+    private static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_file_processing_records_checksum "
+            + "ON file_processing_records (checksum)";
+    private static final String FIND_LATEST_SQL = "SELECT * FROM file_processing_records "
+            + "WHERE checksum = ? AND operation = ? ORDER BY id DESC LIMIT 1";
+    private static final String COUNT_FILE = "shard-count";
+
+    private static final RowMapper<FileProcessingRecord> ROW_MAPPER = (rs, rowNum) -> {
+        var record = new FileProcessingRecord();
+        record.setId(rs.getLong("id"));
+        record.setOriginalPath(rs.getString("original_path"));
+        record.setNewPath(rs.getString("new_path"));
+        record.setChecksum(rs.getString("checksum"));
+        record.setChecksumAlgorithm(rs.getString("checksum_algorithm"));
+        record.setSha512(rs.getString("sha512"));
+        record.setSha1(rs.getString("sha1"));
+        record.setMd5(rs.getString("md5"));
+        record.setCrc32c(rs.getString("crc32c"));
+        record.setOperation(rs.getString("operation"));
+        record.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        return record;
+    };
+
+    private record Shard(SingleConnectionDataSource writeDataSource, AuditBatchWriter writer,
+                         HikariDataSource readDataSource, JdbcTemplate reader) {
+    }
+
+    private final TemporalProperties temporalProperties;
+    private final FileProcessingMetrics metrics;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    public void start() {
+        var audit = temporalProperties.getAudit();
+        var config = audit.getShards();
+        int count = config.getCount();
+        if (count <= 0) {
+            throw new IllegalStateException("temporal.audit.shards.count must be positive, got " + count);
+        }
+        Path directory = Paths.get(config.getDirectory());
+        try {
+            Files.createDirectories(directory);
+            checkShardCount(directory, count);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare audit shard directory: " + e.getMessage(), e);
+        }
+
+        var flushTimer = metrics.stage("persist_flush", FileProcessingMetrics.NONE, FileProcessingMetrics.NONE);
+        for (int i = 0; i < count; i++) {
+            String url = "jdbc:sqlite:" + directory.resolve("fileprocessing-" + i + ".db") + "?" + config.getConnectionParameters();
+            var writeDataSource = new SingleConnectionDataSource(url, true);
+            var writeTemplate = new JdbcTemplate(writeDataSource);
+            writeTemplate.execute(CREATE_TABLE_SQL);
+            writeTemplate.execute(CREATE_INDEX_SQL);
+
+            var writer = new AuditBatchWriter("audit-shard-" + i, audit, writeTemplate,
+                    new TransactionTemplate(new DataSourceTransactionManager(writeDataSource)), flushTimer);
+            writer.start();
+            var readDataSource = readDataSource("audit-shard-" + i + "-read", url, config.getReadConnections());
+            shards.add(new Shard(writeDataSource, writer, readDataSource, new JdbcTemplate(readDataSource)));
+        }
+        log.info("Sharded audit store started with {} shards in {}", count, directory);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.writer().stop();
+            shard.writeDataSource().destroy();
+            shard.readDataSource().close();
+        }
+        readers.shutdown();
+        log.info("Sharded audit store stopped, shard queues flushed");
+    }
+
+    @Override
+    public void record(FileProcessingRecord record) {
+        shardFor(record.getOriginalPath()).writer().enqueue(record);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return shards.stream().mapToInt(shard -> shard.writer().getQueueDepth()).sum();
+    }
+
+    @Override
+    public long getDroppedRecords() {
+        return shards.stream().mapToLong(shard -> shard.writer().getDroppedRecords()).sum();
+    }
+
+    @Override
+    public Optional<FileProcessingRecord> findLatest(String checksum, String operation) {
+        var lookups = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(
+                        () -> shard.reader().query(FIND_LATEST_SQL, ROW_MAPPER, checksum, operation), readers))
+                .toList();
+        return lookups.stream()
+                .flatMap(lookup -> lookup.join().stream())
+                .max(Comparator.comparing(FileProcessingRecord::getTimestamp));
+    }
+
+    private Shard shardFor(String originalPath) {
+        return shards.get(Math.floorMod(Objects.hashCode(originalPath), shards.size()));
+    }
+
+    private static void checkShardCount(Path directory, int count) throws IOException {
+        Path countFile = directory.resolve(COUNT_FILE);
+        if (Files.exists(countFile)) {
+            int existing = Integer.parseInt(Files.readString(countFile).trim());
+            if (existing != count) {
+                throw new IllegalStateException("Audit shards in " + directory + " were created with count " + existing
+                        + ", but temporal.audit.shards.count is " + count + "; existing records would be looked up in the wrong shard");
+            }
+        } else {
+            Files.writeString(countFile, Integer.toString(count));
+        }
+    }
+
+    private static HikariDataSource readDataSource(String poolName, String url, int connections) {
+        var config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(connections);
+        config.setMinimumIdle(1);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,4 @@
+package garrich.demo.temporal.workflow;
+
+public record BatchFileResult(String filePath, String movedFilePath, String checksum, String checksumAlgorithm, String error) {
+}
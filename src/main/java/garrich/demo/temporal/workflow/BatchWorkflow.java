@@ -0,0 +1,13 @@
+package garrich.demo.temporal.workflow;
+
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+import java.util.List;
+
+@WorkflowInterface
+public interface BatchWorkflow {
+
+    @WorkflowMethod
+    List<BatchFileResult> moveFiles(List<String> filePaths, String targetPath);
+}
@@ -0,0 +1,74 @@
+package garrich.demo.temporal.workflow;
+
+import garrich.demo.temporal.activity.ChecksumActivity;
+import garrich.demo.temporal.activity.FileActivity;
+import garrich.demo.temporal.file.Checksum;
+import garrich.demo.temporal.file.FileHashing;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.Promise;
+import io.temporal.workflow.Workflow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchWorkflowImpl implements BatchWorkflow {
+
+    private final FileActivity fileActivity = Workflow.newActivityStub(
+            FileActivity.class,
+            ActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofMinutes(2))
+                    .setRetryOptions(RetryOptions.newBuilder()
+                            .setMaximumAttempts(3)
+                            .build())
+                    .build()
+    );
+
+    private final ChecksumActivity checksumActivity = Workflow.newActivityStub(
+            ChecksumActivity.class,
+            ActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofMinutes(2))
+                    .setRetryOptions(RetryOptions.newBuilder()
+                            .setMaximumAttempts(3)
+                            .build())
+                    .build()
+    );
+
+    @Override
+    public List<BatchFileResult> moveFiles(List<String> filePaths, String targetPath) {
+        List<Promise<BatchFileResult>> promises = new ArrayList<>(filePaths.size());
+        for (String filePath : filePaths) {
+            promises.add(processFile(filePath, targetPath));
+        }
+
+        Promise.allOf(promises).get();
+
+        List<BatchFileResult> results = new ArrayList<>(promises.size());
+        for (Promise<BatchFileResult> promise : promises) {
+            results.add(promise.get());
+        }
+        return results;
+    }
+
+    private Promise<BatchFileResult> processFile(String filePath, String targetPath) {
+        return Async.function(fileActivity::moveFileToTarget, filePath, targetPath)
+                // A failed checksum still reports where the file was moved, since it is no longer at filePath
+                .thenCompose(movedFilePath -> checksum(movedFilePath)
+                        .handle((checksum, e) -> e == null
+                                ? new BatchFileResult(filePath, movedFilePath, checksum.value(), checksum.algorithm(), null)
+                                : new BatchFileResult(filePath, movedFilePath, null, null, e.getMessage())))
+                .exceptionally(e -> new BatchFileResult(filePath, null, null, null, e.getMessage()));
+    }
+
+    private Promise<Checksum> checksum(String movedFilePath) {
+        // Executions started before tree hashing scheduled CalculateSha256, which always returns a plain SHA-256
+        int version = Workflow.getVersion("checksum-activity", Workflow.DEFAULT_VERSION, 1);
+        if (version == Workflow.DEFAULT_VERSION) {
+            return Async.function(checksumActivity::calculateSha256, movedFilePath)
+                    .thenApply(sha256 -> new Checksum(FileHashing.ALGORITHM, sha256));
+        }
+        return Async.function(checksumActivity::calculateChecksum, movedFilePath);
+    }
+}
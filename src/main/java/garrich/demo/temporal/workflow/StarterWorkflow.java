@@ -1,5 +1,6 @@
 package garrich.demo.temporal.workflow;
 
+import garrich.demo.temporal.file.MovedFile;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 
@@ -7,5 +8,5 @@ import io.temporal.workflow.WorkflowMethod;
 public interface StarterWorkflow {
 
     @WorkflowMethod
-    String moveFile(String filePath, String targetPath);
+    MovedFile moveFile(String filePath, String targetPath);
 }
@@ -2,6 +2,9 @@ package garrich.demo.temporal.workflow;
 
 import garrich.demo.temporal.activity.ChecksumActivity;
 import garrich.demo.temporal.activity.FileActivity;
+import garrich.demo.temporal.file.Checksum;
+import garrich.demo.temporal.file.FileHashing;
+import garrich.demo.temporal.file.MovedFile;
 import io.temporal.activity.ActivityOptions;
 import io.temporal.common.RetryOptions;
 import io.temporal.workflow.Workflow;
@@ -31,9 +34,15 @@ public class StarterWorkflowImpl implements StarterWorkflow {
     );
 
     @Override
-    public String moveFile(String filePath, String targetPath) {
+    public MovedFile moveFile(String filePath, String targetPath) {
         String movedFilePath = fileActivity.moveFileToTarget(filePath, targetPath);
-        String checksum = checksumActivity.calculateSha256(movedFilePath);
-        return movedFilePath + " [SHA-256: " + checksum + "]";
+        // Executions started before tree hashing scheduled CalculateSha256, which always returns a plain SHA-256
+        int version = Workflow.getVersion("checksum-activity", Workflow.DEFAULT_VERSION, 1);
+        if (version == Workflow.DEFAULT_VERSION) {
+            String sha256 = checksumActivity.calculateSha256(movedFilePath);
+            return new MovedFile(movedFilePath, sha256, FileHashing.ALGORITHM);
+        }
+        Checksum checksum = checksumActivity.calculateChecksum(movedFilePath);
+        return new MovedFile(movedFilePath, checksum.value(), checksum.algorithm());
     }
 }
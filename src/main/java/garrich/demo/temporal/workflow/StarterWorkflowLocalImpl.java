@@ -2,6 +2,8 @@ package garrich.demo.temporal.workflow;
 
 import garrich.demo.temporal.activity.ChecksumActivity;
 import garrich.demo.temporal.activity.FileActivity;
+import garrich.demo.temporal.file.FileHashing;
+import garrich.demo.temporal.file.MovedFile;
 import io.temporal.activity.LocalActivityOptions;
 import io.temporal.workflow.Workflow;
 
@@ -12,7 +14,7 @@ public class StarterWorkflowLocalImpl implements StarterWorkflowLocal {
     private final FileActivity fileActivity = Workflow.newLocalActivityStub(
             FileActivity.class,
             LocalActivityOptions.newBuilder()
-                    .setStartToCloseTimeout(Duration.ofMinutes(1))
+                    .setStartToCloseTimeout(Duration.ofMinutes(2))
                     .build()
     );
 
@@ -24,9 +26,14 @@ public class StarterWorkflowLocalImpl implements StarterWorkflowLocal {
     );
 
     @Override
-    public String moveFile(String filePath, String targetPath) {
-        String movedFilePath = fileActivity.moveFileToTarget(filePath, targetPath);
-        String checksum = checksumActivity.calculateSha256(movedFilePath);
-        return movedFilePath + " [SHA-256: " + checksum + "]";
+    public MovedFile moveFile(String filePath, String targetPath) {
+        // Executions started before the single-read move ran the move and the checksum as two local activities
+        int version = Workflow.getVersion("move-with-checksum", Workflow.DEFAULT_VERSION, 1);
+        if (version == Workflow.DEFAULT_VERSION) {
+            String movedFilePath = fileActivity.moveFileToTarget(filePath, targetPath);
+            String checksum = checksumActivity.calculateSha256(movedFilePath);
+            return new MovedFile(movedFilePath, checksum, FileHashing.ALGORITHM);
+        }
+        return fileActivity.moveFileWithChecksum(filePath, targetPath);
     }
 }
@@ -1,76 +1,36 @@
 package garrich.demo.temporal.workflow;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import garrich.demo.temporal.file.FileTransfer;
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.file.TimestampedFileNames;
+import io.temporal.workflow.Workflow;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HexFormat;
 
+/**
+ * Does the file I/O directly in workflow code. The move and the checksum run inside a side effect, so
+ * their result is recorded in history once and replays (after a sticky cache eviction or a worker restart)
+ * read it back instead of touching the already moved file again.
+ */
 public class StarterWorkflowWfTasksImpl implements StarterWorkflowWfTasks {
 
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssnnnnnnnn");
-
     @Override
-    public String moveFile(String filePath, String targetPath) {
-        String movedFilePath = moveFileToTarget(filePath, targetPath);
-        String checksum = calculateSha256(movedFilePath);
-        return movedFilePath + " [SHA-256: " + checksum + "]";
+    public MovedFile moveFile(String filePath, String targetPath) {
+        // Workflow metrics scope is muted during replay, so the stage is only timed on first execution
+        var stopwatch = Workflow.getMetricsScope().timer("file_direct_move_checksum_latency").start();
+        MovedFile movedFile = Workflow.sideEffect(MovedFile.class, () -> moveFileWithChecksum(filePath, targetPath));
+        stopwatch.stop();
+        return movedFile;
     }
 
-    private String moveFileToTarget(String filePath, String targetPath) {
+    private MovedFile moveFileWithChecksum(String filePath, String targetPath) {
         Path source = Paths.get(filePath);
 
-        if (!Files.exists(source)) {
-            throw new RuntimeException("Source file does not exist: " + filePath);
-        }
-
         String fileName = source.getFileName().toString();
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String newFileName = addTimestampToFileName(fileName, timestamp);
-
-        Path targetDir = Paths.get(targetPath);
-        Path destination = targetDir.resolve(newFileName);
-
-        try {
-            Files.createDirectories(targetDir);
-            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
-            return destination.toString();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to move file: " + e.getMessage(), e);
-        }
-    }
-
-    private String addTimestampToFileName(String fileName, String timestamp) {
-        int dotIndex = fileName.lastIndexOf('.');
-        if (dotIndex > 0) {
-            String name = fileName.substring(0, dotIndex);
-            String extension = fileName.substring(dotIndex);
-            return name + "_" + timestamp + extension;
-        }
-        return fileName + "_" + timestamp;
-    }
-
-    private String calculateSha256(String filePath) {
-        Path path = Paths.get(filePath);
-
-        if (!Files.exists(path)) {
-            throw new RuntimeException("File does not exist: " + filePath);
-        }
+        String newFileName = TimestampedFileNames.withTimestamp(fileName);
 
-        try {
-            byte[] fileBytes = Files.readAllBytes(path);
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(fileBytes);
-            return HexFormat.of().formatHex(hashBytes);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read file: " + e.getMessage(), e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+        Path destination = Paths.get(targetPath).resolve(newFileName);
+        return FileTransfer.moveAndHash(source, destination);
     }
 }
@@ -0,0 +1,225 @@
+package garrich.demo.temporal;
+
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.serviceclient.WorkflowServiceStubs;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import org.apache.camel.CamelContext;
+import org.apache.camel.spi.CamelEvent;
+import org.apache.camel.support.EventNotifierSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Self-contained throughput and latency harness for all routes.
+ * The application runs in-process against an in-memory {@link TestWorkflowEnvironment}, temporary
+ * source/target directories and a temporary SQLite database, so no Temporal server is needed.
+ * Latency is measured per file, from the moment the file lands in the source directory until
+ * Camel reports its exchange as completed.
+ * Run with:
+ *   ./mvnw -Pbenchmark test [-Dbenchmark.files=1000]
+ */
+@Tag("benchmark")
+@DirtiesContext
+@SpringBootTest(properties = {
+        "spring.main.banner-mode=off",
+        "logging.level.garrich.demo.temporal=WARN",
+        "logging.level.org.apache.camel=WARN"
+})
+class WorkflowThroughputBenchmarkTest {
+
+    private static final int FILE_COUNT = Integer.getInteger("benchmark.files", 200);
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Path WORK_DIR = createWorkDir();
+
+    @Autowired
+    private CamelContext camelContext;
+
+    private final Map<String, Long> droppedAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> completedAt = new ConcurrentHashMap<>();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    private CompletionNotifier notifier;
+    private CountDownLatch remaining;
+
+    @TestConfiguration
+    static class TestTemporalConfig {
+
+        @Bean(destroyMethod = "close")
+        TestWorkflowEnvironment testWorkflowEnvironment(DataConverter dataConverter) {
+            return TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                    .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                            .setDataConverter(dataConverter)
+                            .build())
+                    .setUseTimeskipping(false)
+                    .build());
+        }
+
+        @Bean(destroyMethod = "")
+        @Primary
+        WorkflowServiceStubs testWorkflowServiceStubs(TestWorkflowEnvironment testWorkflowEnvironment) {
+            return testWorkflowEnvironment.getWorkflowServiceStubs();
+        }
+
+        @Bean(destroyMethod = "")
+        @Primary
+        WorkflowClient testWorkflowClient(TestWorkflowEnvironment testWorkflowEnvironment) {
+            return testWorkflowEnvironment.getWorkflowClient();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + WORK_DIR.resolve("fileprocessing.db")
+                + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000");
+        registry.add("temporal.source-path", () -> WORK_DIR.resolve("source").toString());
+        registry.add("temporal.source-path2", () -> WORK_DIR.resolve("source2").toString());
+        registry.add("temporal.source-path3", () -> WORK_DIR.resolve("source3").toString());
+        registry.add("temporal.source-path4", () -> WORK_DIR.resolve("source4").toString());
+        registry.add("temporal.source-path5", () -> WORK_DIR.resolve("source5").toString());
+        registry.add("temporal.target-path", () -> WORK_DIR.resolve("target").toString());
+    }
+
+    @BeforeEach
+    void registerNotifier() throws Exception {
+        notifier = new CompletionNotifier();
+        camelContext.getManagementStrategy().addEventNotifier(notifier);
+        notifier.start();
+    }
+
+    @AfterEach
+    void removeNotifier() throws Exception {
+        camelContext.getManagementStrategy().removeEventNotifier(notifier);
+        notifier.stop();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "file-processor-route,        source,  Remote Activities",
+            "file-processor-route-local,  source2, Local Activities Only",
+            "file-processor-route-wf,     source3, Direct Workflow Execution",
+            "file-processor-route-spring, source4, Spring Service + SQLite",
+            "file-processor-route-batch,  source5, Batched Remote Activities"
+    })
+    void measureRoute(String routeId, String sourceDir, String pattern) throws Exception {
+        droppedAt.clear();
+        completedAt.clear();
+        failures.clear();
+        remaining = new CountDownLatch(FILE_COUNT);
+        notifier.routeId = routeId;
+
+        Path stagingDir = Files.createDirectories(WORK_DIR.resolve("staging-" + routeId));
+        Path source = Files.createDirectories(WORK_DIR.resolve(sourceDir));
+        for (int i = 1; i <= FILE_COUNT; i++) {
+            Files.writeString(stagingDir.resolve(routeId + "-file" + i + ".txt"), "content" + i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= FILE_COUNT; i++) {
+            String fileName = routeId + "-file" + i + ".txt";
+            droppedAt.put(fileName, System.nanoTime());
+            Files.move(stagingDir.resolve(fileName), source.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        assertTrue(remaining.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS),
+                "Timeout waiting for " + routeId + ", completed " + completedAt.size() + "/" + FILE_COUNT);
+        assertEquals(List.of(), failures, "Failed exchanges on " + routeId);
+
+        long end = completedAt.values().stream().mapToLong(Long::longValue).max().orElse(start);
+        report(routeId, pattern, end - start);
+    }
+
+    private void report(String routeId, String pattern, long totalNanos) {
+        long[] latencies = completedAt.entrySet().stream()
+                .mapToLong(entry -> entry.getValue() - droppedAt.get(entry.getKey()))
+                .sorted()
+                .toArray();
+        double totalSeconds = totalNanos / 1_000_000_000.0;
+
+        System.out.println("=".repeat(60));
+        System.out.println("ROUTE: " + routeId + " (" + pattern + ")");
+        System.out.println("=".repeat(60));
+        System.out.println("Files processed:          " + latencies.length);
+        System.out.println("Total time:               " + String.format("%.2f seconds", totalSeconds));
+        System.out.println("Files/second:             " + String.format("%.2f", latencies.length / totalSeconds));
+        System.out.println("Latency p50:              " + formatMillis(percentile(latencies, 50)));
+        System.out.println("Latency p95:              " + formatMillis(percentile(latencies, 95)));
+        System.out.println("Latency p99:              " + formatMillis(percentile(latencies, 99)));
+        System.out.println("Latency max:              " + formatMillis(latencies[latencies.length - 1]));
+        System.out.println("=".repeat(60));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f ms", nanos / 1_000_000.0);
+    }
+
+    private static Path createWorkDir() {
+        try {
+            return Files.createTempDirectory("throughput-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class CompletionNotifier extends EventNotifierSupport {
+
+        private volatile String routeId;
+
+        @Override
+        public void notify(CamelEvent event) {
+            var exchangeEvent = (CamelEvent.ExchangeEvent) event;
+            var exchange = exchangeEvent.getExchange();
+            if (!exchange.getFromRouteId().equals(routeId)) {
+                return;
+            }
+
+            String fileName = exchange.getIn().getHeader("CamelFileName", String.class);
+            if (event instanceof CamelEvent.ExchangeFailedEvent) {
+                failures.add(fileName + ": " + exchange.getException());
+            }
+            if (completedAt.putIfAbsent(fileName, System.nanoTime()) == null) {
+                remaining.countDown();
+            }
+        }
+
+        @Override
+        public boolean isEnabled(CamelEvent event) {
+            return event instanceof CamelEvent.ExchangeCompletedEvent || event instanceof CamelEvent.ExchangeFailedEvent;
+        }
+    }
+}
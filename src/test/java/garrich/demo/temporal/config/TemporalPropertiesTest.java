@@ -0,0 +1,33 @@
+package garrich.demo.temporal.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TemporalPropertiesTest {
+
+    @Test
+    void bindsStorableExtraDigests() {
+        var properties = bind(Map.of("temporal.hashing.extra-digests", "SHA-512,SHA-1,MD5,CRC32C"));
+
+        assertEquals(List.of("SHA-512", "SHA-1", "MD5", "CRC32C"), properties.getHashing().getExtraDigests());
+    }
+
+    @Test
+    void rejectsExtraDigestWithoutColumn() {
+        assertThrows(BindException.class, () -> bind(Map.of("temporal.hashing.extra-digests", "MD5,SHA-384")));
+    }
+
+    private static TemporalProperties bind(Map<String, String> values) {
+        var binder = new Binder(new MapConfigurationPropertySource(values));
+        return binder.bindOrCreate("temporal", Bindable.of(TemporalProperties.class));
+    }
+}
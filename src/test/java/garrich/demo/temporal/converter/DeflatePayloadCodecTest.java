@@ -0,0 +1,108 @@
+package garrich.demo.temporal.converter;
+
+import com.google.protobuf.ByteString;
+import garrich.demo.temporal.file.MovedFile;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodecException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeflatePayloadCodecTest {
+
+    private static final int THRESHOLD = 256;
+
+    private final DeflatePayloadCodec codec = new DeflatePayloadCodec(THRESHOLD);
+
+    @Test
+    void compressesAndRestoresLargePayloads() {
+        Payload payload = json("/tmp/target/".repeat(100));
+
+        Payload encoded = codec.encode(List.of(payload)).getFirst();
+
+        assertEquals(DeflatePayloadCodec.ENCODING,
+                encoded.getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY).toStringUtf8());
+        assertTrue(encoded.getSerializedSize() < payload.getSerializedSize());
+        assertEquals(payload, codec.decode(List.of(encoded)).getFirst());
+    }
+
+    @Test
+    void leavesPayloadsUnderThresholdUncompressed() {
+        Payload payload = json("/tmp/target/a.txt");
+        assertTrue(payload.getSerializedSize() < THRESHOLD);
+
+        Payload encoded = codec.encode(List.of(payload)).getFirst();
+
+        assertSame(payload, encoded);
+        assertEquals(payload, codec.decode(List.of(encoded)).getFirst());
+    }
+
+    @Test
+    void leavesIncompressiblePayloadsUncompressed() {
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+        Payload payload = Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("binary/plain"))
+                .setData(ByteString.copyFrom(random))
+                .build();
+
+        Payload encoded = codec.encode(List.of(payload)).getFirst();
+
+        assertSame(payload, encoded);
+        assertEquals(payload, codec.decode(List.of(encoded)).getFirst());
+    }
+
+    @Test
+    void passesThroughPayloadsThatWereNeverEncoded() {
+        // Written before compression was enabled, so large but without the deflate marker
+        Payload payload = json("/tmp/target/".repeat(100));
+
+        assertSame(payload, codec.decode(List.of(payload)).getFirst());
+    }
+
+    @Test
+    void keepsOrderOfMixedPayloads() {
+        Payload small = json("/tmp/target/a.txt");
+        Payload large = json("/tmp/target/".repeat(100));
+
+        List<Payload> encoded = codec.encode(List.of(large, small, large));
+
+        assertEquals(List.of(large, small, large), codec.decode(encoded));
+    }
+
+    @Test
+    void rejectsTruncatedCompressedPayloads() {
+        Payload encoded = codec.encode(List.of(json("/tmp/target/".repeat(100)))).getFirst();
+        Payload truncated = encoded.toBuilder()
+                .setData(encoded.getData().substring(0, encoded.getData().size() / 2))
+                .build();
+
+        assertThrows(PayloadCodecException.class, () -> codec.decode(List.of(truncated)));
+    }
+
+    @Test
+    void roundTripsThroughDataConverter() {
+        var converter = new CodecDataConverter(DefaultDataConverter.STANDARD_INSTANCE, List.of(codec));
+        var small = new MovedFile("/tmp/target/a.txt", "00".repeat(32));
+        var large = new MovedFile("/tmp/target/" + "nested/".repeat(100) + "a.txt", "00".repeat(32));
+
+        for (MovedFile movedFile : List.of(small, large)) {
+            var payloads = converter.toPayloads(movedFile).orElseThrow();
+            assertEquals(movedFile, converter.fromPayloads(0, Optional.of(payloads), MovedFile.class, MovedFile.class));
+        }
+    }
+
+    private static Payload json(String value) {
+        return DefaultDataConverter.STANDARD_INSTANCE.toPayload(value).orElseThrow();
+    }
+}
@@ -0,0 +1,113 @@
+package garrich.demo.temporal.converter;
+
+import garrich.demo.temporal.file.MovedFile;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import io.temporal.common.converter.PayloadConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovedFilePayloadConverterTest {
+
+    private static final String SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private final MovedFilePayloadConverter converter = new MovedFilePayloadConverter();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/tmp/target/a.txt", "", "/tmp/target/ünïcødé 文件.bin"})
+    void roundTripsMovedFile(String path) {
+        var movedFile = new MovedFile(path, SHA256);
+
+        Payload payload = converter.toData(movedFile).orElseThrow();
+
+        assertEquals(MovedFilePayloadConverter.ENCODING,
+                payload.getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY).toStringUtf8());
+        assertEquals(movedFile, converter.fromData(payload, MovedFile.class, MovedFile.class));
+    }
+
+    @Test
+    void roundTripsOtherAlgorithms() {
+        var crc32c = new MovedFile("/tmp/target/a.txt", "e3069283", "CRC32C");
+        var sha512 = new MovedFile("/tmp/target/b.txt", "ab".repeat(64), "SHA-512");
+
+        assertEquals(crc32c, converter.fromData(converter.toData(crc32c).orElseThrow(), MovedFile.class, MovedFile.class));
+        assertEquals(sha512, converter.fromData(converter.toData(sha512).orElseThrow(), MovedFile.class, MovedFile.class));
+    }
+
+    @Test
+    void isSmallerThanJson() {
+        var movedFile = new MovedFile("/tmp/target/a.txt", SHA256);
+
+        int binary = converter.toData(movedFile).orElseThrow().getSerializedSize();
+        int json = new JacksonJsonPayloadConverter().toData(movedFile).orElseThrow().getSerializedSize();
+
+        assertTrue(binary < json, binary + " >= " + json);
+    }
+
+    @Test
+    void leavesOtherValuesToTheNextConverter() {
+        assertEquals(Optional.empty(), converter.toData("/tmp/target/a.txt"));
+        assertEquals(Optional.empty(), converter.toData(null));
+    }
+
+    @Test
+    void rejectsDecodingIntoOtherTypes() {
+        Payload payload = converter.toData(new MovedFile("/tmp/target/a.txt", SHA256)).orElseThrow();
+
+        assertThrows(DataConverterException.class, () -> converter.fromData(payload, String.class, String.class));
+    }
+
+    @Test
+    void chainDecodesMovedFilesWrittenAsJson() {
+        // Histories recorded before the binary converter was registered hold MovedFile as json/plain
+        var movedFile = new MovedFile("/tmp/target/a.txt", SHA256);
+        Optional<Payload> json = DefaultDataConverter.STANDARD_INSTANCE.toPayload(movedFile);
+
+        DataConverter chain = chain();
+        assertEquals(movedFile, chain.fromPayload(json.orElseThrow(), MovedFile.class, MovedFile.class));
+        assertEquals(movedFile, chain.fromPayload(chain.toPayload(movedFile).orElseThrow(), MovedFile.class, MovedFile.class));
+        assertEquals("/tmp/target/a.txt",
+                chain.fromPayload(chain.toPayload("/tmp/target/a.txt").orElseThrow(), String.class, String.class));
+    }
+
+    @Test
+    void chainDecodesStringResultsOfWorkflowsStartedBeforeTypedResults() {
+        // Before MovedFile, the workflows returned "path [SHA-256: hex]" as a json/plain string
+        Payload legacy = DefaultDataConverter.STANDARD_INSTANCE.toPayload("/tmp/target/a b [c].txt [SHA-256: " + SHA256 + "]")
+                .orElseThrow();
+
+        assertEquals(new MovedFile("/tmp/target/a b [c].txt", SHA256), chain().fromPayload(legacy, MovedFile.class, MovedFile.class));
+    }
+
+    @Test
+    void parsesToStringForm() {
+        var tree = new MovedFile("/tmp/target/a.txt", SHA256, "sha256-tree-8388608");
+
+        assertEquals(tree, MovedFile.parse(tree.toString()));
+        assertThrows(IllegalArgumentException.class, () -> MovedFile.parse("/tmp/target/a.txt"));
+    }
+
+    private static DataConverter chain() {
+        List<PayloadConverter> converters = new ArrayList<>();
+        for (PayloadConverter converter : DefaultDataConverter.STANDARD_PAYLOAD_CONVERTERS) {
+            if (converter instanceof JacksonJsonPayloadConverter) {
+                converters.add(new MovedFilePayloadConverter());
+            }
+            converters.add(converter);
+        }
+        return new DefaultDataConverter(converters.toArray(PayloadConverter[]::new));
+    }
+}
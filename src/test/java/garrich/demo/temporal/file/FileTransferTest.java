@@ -0,0 +1,84 @@
+package garrich.demo.temporal.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTransferTest {
+
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void movesAndHashesInPlace() throws IOException {
+        Path source = Files.writeString(directory.resolve("a.txt"), "abc", StandardCharsets.US_ASCII);
+        Path destination = directory.resolve("target/nested/a.txt");
+
+        var movedFile = FileTransfer.moveAndHash(source, destination);
+
+        assertEquals(new MovedFile(destination.toString(), ABC_SHA256), movedFile);
+        assertFalse(Files.exists(source));
+        assertEquals("abc", Files.readString(destination));
+    }
+
+    @Test
+    void movesAndDigestsEmptyFile() throws IOException {
+        Path source = Files.createFile(directory.resolve("empty.txt"));
+
+        var digests = FileTransfer.moveAndDigest(source, directory.resolve("target/empty.txt"),
+                List.of(MultiDigest.SHA_256, MultiDigest.CRC32C));
+
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", digests.get(MultiDigest.SHA_256));
+        assertEquals("00000000", digests.get(MultiDigest.CRC32C));
+    }
+
+    @Test
+    void copyFallbackHashesWhatItWritesAndDeletesSource() throws IOException, NoSuchAlgorithmException {
+        // Spans several pooled buffers and ends mid-buffer
+        byte[] data = new byte[3 * BufferPool.BUFFER_SIZE + 123];
+        new Random(3).nextBytes(data);
+        Path source = Files.write(directory.resolve("data.bin"), data);
+        Path destination = directory.resolve("data.copy");
+
+        var digests = FileTransfer.moveByCopy(source, destination, List.of(MultiDigest.SHA_256, MultiDigest.MD5));
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)), digests.get(MultiDigest.SHA_256));
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data)), digests.get(MultiDigest.MD5));
+        assertArrayEquals(data, Files.readAllBytes(destination));
+        assertFalse(Files.exists(source));
+    }
+
+    @Test
+    void copyFallbackDeletesPartialCopyAndKeepsSource() throws IOException {
+        // Reading a directory fails only after the destination was created
+        Path source = Files.createDirectory(directory.resolve("unreadable"));
+        Path destination = directory.resolve("partial.bin");
+
+        assertThrows(IOException.class, () -> FileTransfer.moveByCopy(source, destination, List.of(MultiDigest.SHA_256)));
+        assertFalse(Files.exists(destination));
+        assertTrue(Files.exists(source));
+    }
+
+    @Test
+    void rejectsMissingSource() {
+        assertThrows(RuntimeException.class,
+                () -> FileTransfer.moveAndHash(directory.resolve("missing.txt"), directory.resolve("target.txt")));
+    }
+}
@@ -0,0 +1,65 @@
+package garrich.demo.temporal.file;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HashingCancellationTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    @TempDir
+    Path directory;
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void streamingHashStopsAtCancellationCheck() throws IOException {
+        Path file = Files.write(directory.resolve("data.bin"), new byte[1024 * 1024]);
+        var checks = new AtomicInteger();
+
+        assertThrows(CancellationException.class, () -> FileHashing.sha256Hex(file, cancelAfter(checks, 2)));
+        assertEquals(3, checks.get());
+        assertThrows(CancellationException.class,
+                () -> FileHashing.digestsHex(file, List.of(MultiDigest.SHA_256), cancelAfter(new AtomicInteger(), 0)));
+    }
+
+    @Test
+    void resumableHashStopsAtCancellationCheck() throws IOException {
+        Path file = Files.write(directory.resolve("data.bin"), new byte[4096]);
+
+        assertThrows(CancellationException.class, () -> ResumableHashing.sha256Hex(file, Optional.empty(),
+                checkpoint -> { }, cancelAfter(new AtomicInteger(), 0)));
+    }
+
+    @Test
+    void treeHashStopsAtCancellationCheck() throws IOException {
+        Path file = Files.write(directory.resolve("data.bin"), new byte[4096]);
+
+        assertThrows(CancellationException.class,
+                () -> TreeHashing.treeSha256Hex(file, 1024, POOL, cancelAfter(new AtomicInteger(), 0)));
+    }
+
+    private static Runnable cancelAfter(AtomicInteger checks, int allowed) {
+        return () -> {
+            if (checks.getAndIncrement() >= allowed) {
+                throw new CancellationException("cancelled");
+            }
+        };
+    }
+}
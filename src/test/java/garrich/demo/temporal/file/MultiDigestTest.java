@@ -0,0 +1,74 @@
+package garrich.demo.temporal.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultiDigestTest {
+
+    private static final List<String> ALL = List.of(MultiDigest.SHA_256, MultiDigest.SHA_512, MultiDigest.SHA_1,
+            MultiDigest.MD5, MultiDigest.CRC32C);
+
+    @ParameterizedTest
+    @CsvSource({
+            // CRC32C is stored as the 4 big-endian bytes of the checksum; 123456789 is its standard check value
+            "'', 00000000",
+            "abc, 364b3fb7",
+            "123456789, e3069283"
+    })
+    void encodesCrc32cAsBigEndianHex(String content, String expected) {
+        assertEquals(expected, digests(content, List.of(MultiDigest.CRC32C)).get(MultiDigest.CRC32C));
+    }
+
+    @Test
+    void matchesKnownDigestsOfAbc() {
+        var digests = digests("abc", ALL);
+
+        assertEquals(ALL, List.copyOf(digests.keySet()));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", digests.get(MultiDigest.SHA_256));
+        assertEquals("ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a"
+                + "2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f", digests.get(MultiDigest.SHA_512));
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", digests.get(MultiDigest.SHA_1));
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", digests.get(MultiDigest.MD5));
+        assertEquals("364b3fb7", digests.get(MultiDigest.CRC32C));
+    }
+
+    @Test
+    void splitUpdatesMatchOneUpdate() {
+        var split = MultiDigest.of(ALL);
+        for (String piece : List.of("12", "345", "", "6789")) {
+            var buffer = ByteBuffer.wrap(piece.getBytes(StandardCharsets.US_ASCII));
+            split.update(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+
+        assertEquals(digests("123456789", ALL), split.hex());
+    }
+
+    @Test
+    void computesRepeatedAlgorithmOnce() {
+        var digests = digests("abc", List.of(MultiDigest.SHA_256, MultiDigest.MD5, MultiDigest.SHA_256));
+
+        assertEquals(List.of(MultiDigest.SHA_256, MultiDigest.MD5), List.copyOf(digests.keySet()));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", digests.get(MultiDigest.SHA_256));
+    }
+
+    @Test
+    void rejectsUnknownAlgorithm() {
+        assertThrows(RuntimeException.class, () -> MultiDigest.of(List.of("SHA-999")));
+    }
+
+    private static Map<String, String> digests(String content, List<String> algorithms) {
+        var digest = MultiDigest.of(algorithms);
+        digest.update(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+        return digest.hex();
+    }
+}
@@ -0,0 +1,145 @@
+package garrich.demo.temporal.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResumableSha256Test {
+
+    @ParameterizedTest
+    @CsvSource({
+            "'', e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+            "abc, ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+            "abcdbcdecdefdefgefghfghighijhijkijkljklmklmnlmnomnopnopq, "
+                    + "248d6a61d20638b8e5c026930c3e6039a33ce45964ff2167f6ecedd419db06c1",
+            "abcdefghbcdefghicdefghijdefghijkefghijklfghijklmghijklmnhijklmnoijklmnopjklmnopqklmnopqrlmnopqrsmnopqrstnopqrstu, "
+                    + "cf5b16a778af8380036ce59e7b0492370b249b11e8f07a51afac45037afee9d1"
+    })
+    void matchesFips180Vectors(String message, String expected) {
+        var sha256 = new ResumableSha256();
+        sha256.update(ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(expected, HexFormat.of().formatHex(sha256.digest()));
+    }
+
+    @Test
+    void matchesFips180MillionA() {
+        var chunk = ByteBuffer.allocate(1000);
+        while (chunk.hasRemaining()) {
+            chunk.put((byte) 'a');
+        }
+
+        var sha256 = new ResumableSha256();
+        for (int i = 0; i < 1000; i++) {
+            sha256.update(chunk.clear());
+        }
+        assertEquals("cdc76e5c9914fb9281a1c7e284d73e67f1809a48a497200e046d39ccc7112cd0",
+                HexFormat.of().formatHex(sha256.digest()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 55, 56, 63, 64, 65, 119, 120, 128, 1000, 100_000})
+    void matchesJdkDigestForHeapDirectAndLittleEndianBuffers(int size) throws NoSuchAlgorithmException {
+        byte[] data = randomBytes(size);
+        String expected = jdkSha256(data);
+
+        assertEquals(expected, hash(ByteBuffer.wrap(data)));
+        assertEquals(expected, hash(ByteBuffer.allocateDirect(size).put(data).flip()));
+        assertEquals(expected, hash(ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 63, 64, 65, 100, 4096})
+    void matchesJdkDigestAcrossBufferBoundaries(int chunkSize) throws NoSuchAlgorithmException {
+        byte[] data = randomBytes(10_000);
+
+        var sha256 = new ResumableSha256();
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            sha256.update(ByteBuffer.wrap(data, offset, Math.min(chunkSize, data.length - offset)));
+        }
+        assertEquals(jdkSha256(data), HexFormat.of().formatHex(sha256.digest()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0, 0", "64, 64", "64, 65", "128, 1000", "640, 641", "9984, 10000", "9984, 9984"})
+    void resumedDigestEqualsOneShotDigest(int resumeAt, int size) throws NoSuchAlgorithmException {
+        byte[] data = randomBytes(size);
+
+        var first = new ResumableSha256();
+        // Feed the prefix in odd-sized pieces so the block buffer is exercised before the state is taken
+        for (int offset = 0; offset < resumeAt; offset += 37) {
+            first.update(ByteBuffer.wrap(data, offset, Math.min(37, resumeAt - offset)));
+        }
+        var resumed = ResumableSha256.resume(first.state(), first.length());
+        resumed.update(ByteBuffer.wrap(data, resumeAt, size - resumeAt));
+
+        assertEquals(jdkSha256(data), HexFormat.of().formatHex(resumed.digest()));
+    }
+
+    @Test
+    void stateIsOnlyAvailableAtBlockBoundary() {
+        var sha256 = new ResumableSha256();
+        sha256.update(ByteBuffer.wrap(new byte[65]));
+
+        assertThrows(IllegalStateException.class, sha256::state);
+        assertThrows(IllegalArgumentException.class, () -> ResumableSha256.resume("00".repeat(32), 65));
+    }
+
+    @Test
+    void resumableHashingContinuesFromCheckpoint(@TempDir Path directory) throws IOException, NoSuchAlgorithmException {
+        byte[] data = randomBytes(64 * 1024);
+        Path file = Files.write(directory.resolve("data.bin"), data);
+        String expected = jdkSha256(data);
+
+        List<ResumableHashing.Checkpoint> checkpoints = new ArrayList<>();
+        assertEquals(expected, ResumableHashing.sha256Hex(file, Optional.empty(), checkpoints::add));
+        assertEquals(1, checkpoints.size());
+        assertEquals(data.length, checkpoints.getFirst().offset());
+
+        // A checkpoint at the end of the file only needs the padding block
+        assertEquals(expected, ResumableHashing.sha256Hex(file, Optional.of(checkpoints.getFirst()), checkpoint -> { }));
+    }
+
+    @Test
+    void resumableHashingRestartsWhenFileChanged(@TempDir Path directory) throws IOException, NoSuchAlgorithmException {
+        byte[] data = randomBytes(4096);
+        Path file = Files.write(directory.resolve("data.bin"), data);
+        var stale = new ResumableHashing.Checkpoint(64, "00".repeat(32), data.length + 1, 0);
+
+        assertEquals(jdkSha256(data), ResumableHashing.sha256Hex(file, Optional.of(stale), checkpoint -> { }));
+    }
+
+    private static String hash(ByteBuffer data) {
+        var sha256 = new ResumableSha256();
+        sha256.update(data);
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private static String jdkSha256(byte[] data) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,75 @@
+package garrich.demo.temporal.file;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TreeHashingTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @TempDir
+    Path directory;
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    /**
+     * Expected roots computed independently as SHA-256(0x01 || SHA-256(0x00 || chunk) || ...) with 4-byte chunks.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            // An empty file still has one (empty) leaf
+            "'', d582e1d0cdfac8ddf46a67ec6bd551715dd708375d5b3f5d794009710d83e83b",
+            "abc, d7472c1021a4e9c087d491c1b90b8daeb39e77520a873ef4d61f2c52281cd001",
+            // Exactly one and two chunks: no empty trailing leaf
+            "abcd, 8e3e521efe4d31b74b5c53f745c213a7fc6990fb55501b057d4c840d3e19d820",
+            "abcdefgh, a618f1c36df0313c6869b6d4cbc2d2cc8c0a75fcf2d1c33ebc1de5940395409f",
+            "abcdefghi, 8383a54bcd4a52d6426d8efa457db71b89866b3a5f2851ece52089ee7c710a87"
+    })
+    void matchesKnownRoots(String content, String expected) throws IOException {
+        Path file = Files.writeString(directory.resolve("data.txt"), content, StandardCharsets.US_ASCII);
+
+        assertEquals(expected, TreeHashing.treeSha256Hex(file, 4, POOL));
+    }
+
+    @Test
+    void singleChunkDiffersFromPlainSha256() throws IOException {
+        Path file = Files.writeString(directory.resolve("data.txt"), "abc", StandardCharsets.US_ASCII);
+
+        assertNotEquals(FileHashing.sha256Hex(file), TreeHashing.treeSha256Hex(file, 1024, POOL));
+    }
+
+    @Test
+    void doesNotDependOnParallelism() throws IOException {
+        byte[] data = new byte[1024 * 1024 + 17];
+        new Random(7).nextBytes(data);
+        Path file = Files.write(directory.resolve("data.bin"), data);
+
+        var single = new ForkJoinPool(1);
+        try {
+            assertEquals(TreeHashing.treeSha256Hex(file, 64 * 1024, single), TreeHashing.treeSha256Hex(file, 64 * 1024, POOL));
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void algorithmIdCarriesChunkSize() {
+        assertEquals("sha256-tree-8388608", TreeHashing.algorithm(8 * 1024 * 1024));
+    }
+}
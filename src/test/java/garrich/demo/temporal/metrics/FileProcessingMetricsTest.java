@@ -0,0 +1,34 @@
+package garrich.demo.temporal.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FileProcessingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FileProcessingMetrics metrics = new FileProcessingMetrics(registry);
+
+    @Test
+    void reusesTimerPerTagCombination() {
+        var timer = metrics.stage("persist", FileProcessingMetrics.NONE, "FileProcessingService");
+
+        assertSame(timer, metrics.stage("persist", FileProcessingMetrics.NONE, "FileProcessingService"));
+        assertNotSame(timer, metrics.stage("persist", "file-processor-route", "FileProcessingService"));
+        assertEquals(2, registry.find(FileProcessingMetrics.STAGE_TIMER).timers().size());
+    }
+
+    @Test
+    void activityStageOutsideActivityIsTaggedNone() {
+        metrics.activityStage("checksum").record(() -> { });
+
+        var timer = registry.get(FileProcessingMetrics.STAGE_TIMER)
+                .tag("stage", "checksum")
+                .tag("workflow_type", FileProcessingMetrics.NONE)
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
@@ -0,0 +1,89 @@
+package garrich.demo.temporal.route;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionLimitTest {
+
+    private final AtomicInteger pauses = new AtomicInteger();
+    private final AtomicInteger resumes = new AtomicInteger();
+
+    @Test
+    void fixedLimitNeverPauses() throws InterruptedException {
+        var limit = new AdmissionLimit("test", 2);
+        limit.acquire();
+        limit.acquire();
+
+        assertEquals(2, limit.getInFlight());
+        assertFalse(limit.isPaused());
+        limit.release();
+        assertFalse(limit.isPaused());
+    }
+
+    @Test
+    void pausesAtLimitAndResumesOnRelease() throws InterruptedException {
+        var limit = pausingLimit(1, 2);
+        limit.acquire();
+        assertFalse(limit.isPaused());
+        limit.acquire();
+        assertTrue(limit.isPaused());
+        assertEquals(1, pauses.get());
+
+        limit.release();
+        assertFalse(limit.isPaused());
+        assertEquals(1, resumes.get());
+    }
+
+    @Test
+    void acquireWaitsForRelease() throws InterruptedException {
+        var limit = pausingLimit(1, 1);
+        limit.acquire();
+
+        var acquired = new CountDownLatch(1);
+        Thread.ofVirtual().start(() -> {
+            try {
+                limit.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+
+        limit.release();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertEquals(1, limit.getInFlight());
+    }
+
+    @Test
+    void backsOffWhenOverloadedAndGrowsWhenFullyUsed() throws InterruptedException {
+        var limit = pausingLimit(2, 8);
+        limit.adjust(true, 0.5);
+        assertEquals(4, limit.getLimit());
+        limit.adjust(true, 0.1);
+        assertEquals(2, limit.getLimit());
+
+        // Not grown while the route doesn't use what it has
+        limit.adjust(false, 0.5);
+        assertEquals(2, limit.getLimit());
+
+        limit.acquire();
+        limit.acquire();
+        assertTrue(limit.isPaused());
+        limit.adjust(false, 0.5);
+        assertEquals(3, limit.getLimit());
+        assertFalse(limit.isPaused());
+        assertEquals(1, resumes.get());
+    }
+
+    private AdmissionLimit pausingLimit(int minLimit, int maxLimit) {
+        return new AdmissionLimit("test", minLimit, maxLimit, pauses::incrementAndGet, resumes::incrementAndGet);
+    }
+}
@@ -0,0 +1,121 @@
+package garrich.demo.temporal.route;
+
+import garrich.demo.temporal.file.MovedFile;
+import garrich.demo.temporal.workflow.BatchFileResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchingWorkflowProcessorTest {
+
+    private record Start(List<String> filePaths, String thread, CompletableFuture<List<BatchFileResult>> result) {
+    }
+
+    private final DefaultCamelContext camelContext = new DefaultCamelContext();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BlockingQueue<Start> starts = new LinkedBlockingQueue<>();
+    private BatchingWorkflowProcessor processor;
+
+    @AfterEach
+    void tearDown() {
+        processor.stop();
+        camelContext.stop();
+    }
+
+    @Test
+    void startsWorkflowWhenBatchIsFull() throws InterruptedException {
+        processor = processor(2, Duration.ofMinutes(1), new AdmissionLimit("test", 1, 1, () -> { }, () -> { }));
+        var first = exchange("/in/a.txt");
+        var second = exchange("/in/b.txt");
+        var done = new CountDownLatch(2);
+        processor.process(first, doneSync -> done.countDown());
+        processor.process(second, doneSync -> done.countDown());
+
+        var start = starts.poll(5, TimeUnit.SECONDS);
+        assertNotNull(start);
+        assertEquals(List.of("/in/a.txt", "/in/b.txt"), start.filePaths());
+
+        start.result().complete(List.of(
+                new BatchFileResult("/in/a.txt", "/out/a.txt", "aa", "sha256", null),
+                new BatchFileResult("/in/b.txt", "/out/b.txt", "bb", "sha256", null)));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNull(first.getException());
+        assertEquals(new MovedFile("/out/a.txt", "aa", "sha256"), first.getIn().getBody());
+        assertEquals(new MovedFile("/out/b.txt", "bb", "sha256"), second.getIn().getBody());
+    }
+
+    @Test
+    void flushesPartialBatchOffTheTimerThread() throws InterruptedException {
+        var admission = new AdmissionLimit("test", 1, 1, () -> { }, () -> { });
+        processor = processor(10, Duration.ofMillis(20), admission);
+
+        // With the only admission slot taken, the timed-out batch has to wait for it
+        admission.acquire();
+        processor.process(exchange("/in/a.txt"), doneSync -> { });
+        Thread.sleep(100);
+        assertTrue(starts.isEmpty());
+
+        // The timer thread is still free to flush the next batch once a slot opens up
+        processor.process(exchange("/in/b.txt"), doneSync -> { });
+        admission.release();
+        var start = starts.poll(5, TimeUnit.SECONDS);
+        assertNotNull(start);
+        assertNotEquals("batch-timer", start.thread());
+        start.result().complete(List.of());
+        assertNotNull(starts.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reportsMovedLocationWhenChecksumFails() throws InterruptedException {
+        processor = processor(2, Duration.ofMinutes(1), new AdmissionLimit("test", 1, 1, () -> { }, () -> { }));
+        var moved = exchange("/in/a.txt");
+        var notMoved = exchange("/in/b.txt");
+        var done = new CountDownLatch(2);
+        processor.process(moved, doneSync -> done.countDown());
+        processor.process(notMoved, doneSync -> done.countDown());
+
+        starts.poll(5, TimeUnit.SECONDS).result().complete(List.of(
+                new BatchFileResult("/in/a.txt", "/out/a.txt", null, null, "checksum timed out"),
+                new BatchFileResult("/in/b.txt", null, null, null, "move failed")));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals("/out/a.txt", moved.getIn().getBody());
+        assertTrue(moved.getException().getMessage().contains("/out/a.txt"));
+        assertTrue(notMoved.getException().getMessage().contains("move failed"));
+    }
+
+    private BatchingWorkflowProcessor processor(int batchSize, Duration batchTimeout, AdmissionLimit admission) {
+        var processor = new BatchingWorkflowProcessor(batchSize, batchTimeout, admission,
+                registry.timer("start"), registry.timer("workflow"),
+                filePaths -> {
+                    var result = new CompletableFuture<List<BatchFileResult>>();
+                    starts.add(new Start(filePaths, Thread.currentThread().getName(), result));
+                    return result;
+                });
+        processor.start();
+        return processor;
+    }
+
+    private Exchange exchange(String filePath) {
+        var exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setHeader("CamelFileAbsolutePath", filePath);
+        return exchange;
+    }
+}
@@ -0,0 +1,67 @@
+package garrich.demo.temporal.route;
+
+import org.apache.camel.component.file.GenericFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectoryWatchSchedulerTest {
+
+    private final DirectoryWatchScheduler scheduler =
+            new DirectoryWatchScheduler("test", Path.of("unused"), Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+    @Test
+    void acceptsQuietFileOnFirstPoll() {
+        long settled = System.currentTimeMillis() - 5_000;
+
+        assertTrue(scheduler.accept(file("a.txt", 100, settled)));
+    }
+
+    @Test
+    void acceptsFileOnceSizeIsStableAcrossPolls() {
+        long now = System.currentTimeMillis();
+        long settled = now - 5_000;
+
+        assertFalse(scheduler.accept(file("a.txt", 100, now)));
+        assertTrue(scheduler.accept(file("a.txt", 100, settled)));
+    }
+
+    @Test
+    void holdsBackFileThatGrewSinceLastPoll() {
+        long settled = System.currentTimeMillis() - 5_000;
+
+        assertFalse(scheduler.accept(file("a.txt", 100, System.currentTimeMillis())));
+        // Quiet by its modification time, but it grew since the previous poll
+        assertFalse(scheduler.accept(file("a.txt", 200, settled)));
+        assertTrue(scheduler.accept(file("a.txt", 200, settled)));
+    }
+
+    @Test
+    void holdsBackRecentlyModifiedFile() {
+        long now = System.currentTimeMillis();
+
+        assertFalse(scheduler.accept(file("a.txt", 100, now)));
+        assertFalse(scheduler.accept(file("a.txt", 100, now)));
+    }
+
+    @Test
+    void acceptedFileStartsOverWhenWrittenAgain() {
+        long settled = System.currentTimeMillis() - 5_000;
+
+        assertTrue(scheduler.accept(file("a.txt", 100, settled)));
+        assertTrue(scheduler.accept(file("a.txt", 300, settled)));
+    }
+
+    private static GenericFile<File> file(String name, long length, long lastModified) {
+        var file = new GenericFile<File>();
+        file.setFileName(name);
+        file.setFileLength(length);
+        file.setLastModified(lastModified);
+        return file;
+    }
+}
@@ -0,0 +1,79 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditBatchWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + directory.resolve("audit.db"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(ShardedAuditStore.CREATE_TABLE_SQL);
+
+        var audit = new TemporalProperties().getAudit();
+        audit.setFlushRetries(2);
+        audit.setFlushRetryBackoff(Duration.ofMillis(1));
+        writer = new AuditBatchWriter("test-writer", audit, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new SimpleMeterRegistry().timer("flush"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void writesQueuedRecordsByShutdown() throws InterruptedException {
+        writer.start();
+        for (int i = 0; i < 50; i++) {
+            writer.enqueue(AuditJournalTest.record("in/" + i + ".txt", i));
+        }
+        writer.stop();
+
+        assertEquals(50, rowCount());
+        assertEquals(0, writer.getDroppedRecords());
+    }
+
+    @Test
+    void savesRestOfFailedBatchOneByOne() throws InterruptedException {
+        // Rejects one record, which fails every batch it is part of
+        jdbcTemplate.execute("CREATE TRIGGER reject_bad BEFORE INSERT ON file_processing_records "
+                + "WHEN NEW.original_path = 'in/bad.txt' BEGIN SELECT RAISE(ABORT, 'rejected'); END");
+
+        for (int i = 0; i < 5; i++) {
+            writer.enqueue(AuditJournalTest.record("in/" + i + ".txt", i));
+        }
+        writer.enqueue(AuditJournalTest.record("in/bad.txt", 5));
+        writer.start();
+        writer.stop();
+
+        assertEquals(5, rowCount());
+        assertEquals(1, writer.getDroppedRecords());
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_processing_records", Integer.class);
+    }
+}
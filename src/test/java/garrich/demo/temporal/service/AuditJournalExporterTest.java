@@ -0,0 +1,102 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private TemporalProperties properties;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditJournalExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TemporalProperties();
+        var journal = properties.getAudit().getJournal();
+        journal.setDirectory(directory.resolve("journal").toString());
+        journal.setSegmentSize(4096);
+        journal.setFsync(TemporalProperties.Journal.Fsync.NONE);
+
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + directory.resolve("audit.db"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(ShardedAuditStore.CREATE_TABLE_SQL);
+        exporter = new AuditJournalExporter(properties, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void exportsEachSegmentOnce() throws IOException {
+        Path segment = writeSegment(3);
+        Path copy = Files.copy(segment, directory.resolve("copy"));
+
+        assertEquals(3, exporter.export());
+        assertEquals(3, rowCount());
+        assertTrue(Files.notExists(segment));
+
+        // The delete was lost to a crash: the segment is back, but already recorded as exported
+        Files.move(copy, segment);
+        assertEquals(0, exporter.export());
+        assertEquals(3, rowCount());
+        assertTrue(Files.notExists(segment));
+    }
+
+    @Test
+    void quarantinesCorruptSegment() throws IOException {
+        Path segment = writeSegment(3);
+        var bytes = Files.readAllBytes(segment);
+        int secondRecord = 8 + ByteBuffer.wrap(bytes).getInt(0);
+        bytes[secondRecord + 12] ^= 0x01;
+        Files.write(segment, bytes);
+
+        assertEquals(1, exporter.export());
+        assertEquals(1, rowCount());
+        assertTrue(Files.notExists(segment));
+        assertEquals(1, AuditJournal.segments(journalDirectory(), AuditJournal.CORRUPT_SUFFIX).size());
+    }
+
+    private Path writeSegment(int records) throws IOException {
+        var journal = new AuditJournal(properties, null);
+        journal.start();
+        for (int i = 0; i < records; i++) {
+            journal.record(AuditJournalTest.record("in/" + i + ".txt", i));
+        }
+        journal.stop();
+
+        List<Path> segments = AuditJournal.segments(journalDirectory(), AuditJournal.SEALED_SUFFIX);
+        assertEquals(1, segments.size());
+        return segments.getFirst();
+    }
+
+    private Path journalDirectory() {
+        return Path.of(properties.getAudit().getJournal().getDirectory());
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_processing_records", Integer.class);
+    }
+}
@@ -0,0 +1,176 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesLengthChecksumPayloadRecords() throws IOException {
+        var record = record("in/a.txt", 1);
+        record.setSha512("sha512-value");
+        record.setTimestamp(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_789));
+        Path segment = writeSegment(List.of(record));
+
+        var data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int length = data.getInt();
+        int crc = data.getInt();
+        var check = new CRC32C();
+        check.update(data.array(), data.position(), length);
+        assertEquals((int) check.getValue(), crc);
+        // The next header is the zero length that ends the segment
+        assertEquals(0, data.getInt(data.position() + length));
+
+        var read = AuditJournal.read(segment);
+        assertFalse(read.corrupt());
+        assertEquals(1, read.records().size());
+        var decoded = read.records().getFirst();
+        assertEquals(record.getOriginalPath(), decoded.getOriginalPath());
+        assertEquals(record.getNewPath(), decoded.getNewPath());
+        assertEquals(record.getChecksum(), decoded.getChecksum());
+        assertEquals(record.getChecksumAlgorithm(), decoded.getChecksumAlgorithm());
+        assertEquals(record.getSha512(), decoded.getSha512());
+        assertNull(decoded.getSha1());
+        assertEquals(record.getOperation(), decoded.getOperation());
+        assertEquals(record.getTimestamp(), decoded.getTimestamp());
+    }
+
+    @Test
+    void rotatesFullSegments() throws IOException {
+        var journal = journal(512);
+        journal.start();
+        for (int i = 0; i < 20; i++) {
+            journal.record(record("in/" + i + ".txt", i));
+        }
+        journal.stop();
+
+        var segments = AuditJournal.segments(directory, AuditJournal.SEALED_SUFFIX);
+        assertTrue(segments.size() > 1);
+        List<String> paths = new ArrayList<>();
+        for (Path segment : segments) {
+            AuditJournal.read(segment).records().forEach(record -> paths.add(record.getOriginalPath()));
+        }
+        assertEquals(20, paths.size());
+        assertEquals("in/0.txt", paths.getFirst());
+        assertEquals("in/19.txt", paths.getLast());
+    }
+
+    @Test
+    void ignoresTornLastRecord() throws IOException {
+        Path segment = writeSegment(List.of(record("in/a.txt", 1), record("in/b.txt", 2), record("in/c.txt", 3)));
+        int[] offsets = recordOffsets(segment);
+
+        // A crash mid-write leaves the end of the last payload unwritten
+        var bytes = Files.readAllBytes(segment);
+        int end = offsets[3];
+        Arrays.fill(bytes, end - 10, end, (byte) 0);
+        Files.write(segment, bytes);
+
+        var read = AuditJournal.read(segment);
+        assertFalse(read.corrupt());
+        assertEquals(2, read.records().size());
+    }
+
+    @Test
+    void flagsCorruptRecordFollowedByData() throws IOException {
+        Path segment = writeSegment(List.of(record("in/a.txt", 1), record("in/b.txt", 2), record("in/c.txt", 3)));
+        int[] offsets = recordOffsets(segment);
+
+        var bytes = Files.readAllBytes(segment);
+        bytes[offsets[1] + 12] ^= 0x01;
+        Files.write(segment, bytes);
+
+        var read = AuditJournal.read(segment);
+        assertTrue(read.corrupt());
+        assertEquals(1, read.records().size());
+    }
+
+    @Test
+    void flagsInvalidLength() throws IOException {
+        Path segment = writeSegment(List.of(record("in/a.txt", 1), record("in/b.txt", 2)));
+        int[] offsets = recordOffsets(segment);
+
+        var bytes = Files.readAllBytes(segment);
+        ByteBuffer.wrap(bytes).putInt(offsets[1], Integer.MAX_VALUE);
+        Files.write(segment, bytes);
+
+        var read = AuditJournal.read(segment);
+        assertTrue(read.corrupt());
+        assertEquals(1, read.records().size());
+    }
+
+    @Test
+    void rejectsRecordsAfterStop() throws IOException {
+        var journal = journal(4096);
+        journal.start();
+        journal.stop();
+
+        assertThrows(IllegalStateException.class, () -> journal.record(record("in/a.txt", 1)));
+        // A second stop must not try to seal the already sealed segment again
+        journal.stop();
+    }
+
+    static FileProcessingRecord record(String originalPath, int checksum) {
+        return new FileProcessingRecord(originalPath, originalPath.replace("in/", "out/"),
+                "%064x".formatted(checksum), "sha256", "MOVED");
+    }
+
+    private Path writeSegment(List<FileProcessingRecord> records) throws IOException {
+        var journal = journal(4096);
+        journal.start();
+        records.forEach(journal::record);
+        journal.stop();
+
+        var segments = AuditJournal.segments(directory, AuditJournal.SEALED_SUFFIX);
+        assertEquals(1, segments.size());
+        return segments.getFirst();
+    }
+
+    private AuditJournal journal(int segmentSize) {
+        var properties = new TemporalProperties();
+        var journal = properties.getAudit().getJournal();
+        journal.setDirectory(directory.toString());
+        journal.setSegmentSize(segmentSize);
+        journal.setFsync(TemporalProperties.Journal.Fsync.NONE);
+        return new AuditJournal(properties, null);
+    }
+
+    /**
+     * Start offsets of each record, followed by the offset of the end marker.
+     */
+    private static int[] recordOffsets(Path segment) throws IOException {
+        var data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Integer> offsets = new ArrayList<>();
+        int offset = 0;
+        while (true) {
+            offsets.add(offset);
+            int length = data.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            offset += 8 + length;
+        }
+        return offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
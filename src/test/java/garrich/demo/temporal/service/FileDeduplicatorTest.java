@@ -0,0 +1,92 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileDeduplicatorTest {
+
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void linksDuplicateToStoredFile() throws IOException {
+        var deduplicator = deduplicator(TemporalProperties.Dedup.Mode.LINK, Optional.empty());
+
+        var first = deduplicator.store(source("a.txt"), directory.resolve("target/a1.txt"));
+        var second = deduplicator.store(source("b.txt"), directory.resolve("target/b1.txt"));
+
+        assertEquals(DedupResult.Decision.STORED, first.decision());
+        assertEquals(ABC_SHA256, first.sha256());
+        assertEquals(DedupResult.Decision.DUPLICATE_LINKED, second.decision());
+        assertEquals(ABC_SHA256, second.sha256());
+        assertTrue(Files.isSameFile(Path.of(first.path()), Path.of(second.path())));
+        assertFalse(Files.exists(directory.resolve("source/b.txt")));
+        assertFalse(Files.exists(directory.resolve("target/b1.txt.link")));
+    }
+
+    @Test
+    void skipsDuplicateAndReportsStoredPath() throws IOException {
+        var deduplicator = deduplicator(TemporalProperties.Dedup.Mode.SKIP, Optional.empty());
+
+        var first = deduplicator.store(source("a.txt"), directory.resolve("target/a1.txt"));
+        var second = deduplicator.store(source("b.txt"), directory.resolve("target/b1.txt"));
+
+        assertEquals(DedupResult.Decision.DUPLICATE_SKIPPED, second.decision());
+        assertEquals(first.path(), second.path());
+        assertFalse(Files.exists(directory.resolve("target/b1.txt")));
+        assertFalse(Files.exists(directory.resolve("source/b.txt")));
+    }
+
+    @Test
+    void findsFilesStoredBeforeRestartThroughAuditRecords() throws IOException {
+        Path stored = Files.writeString(Files.createDirectories(directory.resolve("target")).resolve("old.txt"), "abc");
+        var record = new FileProcessingRecord("/source/old.txt", stored.toString(), ABC_SHA256, "CHECKSUM_CALCULATED");
+        var deduplicator = deduplicator(TemporalProperties.Dedup.Mode.LINK, Optional.of(record));
+
+        var result = deduplicator.store(source("a.txt"), directory.resolve("target/a1.txt"));
+
+        assertEquals(DedupResult.Decision.DUPLICATE_LINKED, result.decision());
+        assertTrue(Files.isSameFile(stored, Path.of(result.path())));
+    }
+
+    private Path source(String name) throws IOException {
+        return Files.writeString(Files.createDirectories(directory.resolve("source")).resolve(name), "abc",
+                StandardCharsets.US_ASCII);
+    }
+
+    private static FileDeduplicator deduplicator(TemporalProperties.Dedup.Mode mode, Optional<FileProcessingRecord> stored) {
+        var properties = new TemporalProperties();
+        properties.getDedup().setEnabled(true);
+        properties.getDedup().setMode(mode);
+        AuditSink auditSink = new AuditSink() {
+            @Override
+            public void record(FileProcessingRecord record) {
+            }
+
+            @Override
+            public int getQueueDepth() {
+                return 0;
+            }
+
+            @Override
+            public Optional<FileProcessingRecord> findLatest(String checksum, String operation) {
+                return stored.filter(record -> record.getChecksum().equals(checksum));
+            }
+        };
+        return new FileDeduplicator(properties, new ChecksumIndex(auditSink, properties));
+    }
+}
@@ -0,0 +1,75 @@
+package garrich.demo.temporal.service;
+
+import garrich.demo.temporal.config.TemporalProperties;
+import garrich.demo.temporal.entity.FileProcessingRecord;
+import garrich.demo.temporal.metrics.FileProcessingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedAuditStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsRecordsInEveryShard() throws InterruptedException {
+        var store = store(3);
+        store.start();
+        try {
+            for (int i = 0; i < 30; i++) {
+                store.record(AuditJournalTest.record("in/" + i + ".txt", i));
+            }
+            for (int i = 0; i < 30; i++) {
+                var found = awaitLatest(store, "%064x".formatted(i));
+                assertTrue(found.isPresent());
+                assertEquals("in/" + i + ".txt", found.get().getOriginalPath());
+            }
+        } finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    void rejectsChangedShardCount() throws InterruptedException {
+        var store = store(3);
+        store.start();
+        store.stop();
+
+        assertThrows(IllegalStateException.class, () -> store(4).start());
+        var reopened = store(3);
+        reopened.start();
+        reopened.stop();
+    }
+
+    @Test
+    void rejectsMissingShardCount() {
+        assertThrows(IllegalStateException.class, () -> store(0).start());
+    }
+
+    private ShardedAuditStore store(int count) {
+        var properties = new TemporalProperties();
+        var shards = properties.getAudit().getShards();
+        shards.setCount(count);
+        shards.setDirectory(directory.toString());
+        return new ShardedAuditStore(properties, new FileProcessingMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static Optional<FileProcessingRecord> awaitLatest(ShardedAuditStore store, String checksum)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        var found = store.findLatest(checksum, "MOVED");
+        while (found.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            found = store.findLatest(checksum, "MOVED");
+        }
+        return found;
+    }
+}